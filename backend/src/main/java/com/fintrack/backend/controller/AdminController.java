@@ -4,8 +4,10 @@ import com.fintrack.backend.dto.AdminCreateTransactionDto;
 import com.fintrack.backend.dto.AdminCreateUserDto;
 import com.fintrack.backend.dto.AdminStatsDto;
 import com.fintrack.backend.dto.AdminUpdateUserDto;
+import com.fintrack.backend.dto.CategorizationStatsDto;
 import com.fintrack.backend.dto.TransactionDto;
 import com.fintrack.backend.dto.UserDetailDto;
+import com.fintrack.backend.entity.RecategorizationJob;
 import com.fintrack.backend.service.AdminService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -159,6 +161,47 @@ public class AdminController {
         return ResponseEntity.ok(Map.of("status", "Mapping deleted"));
     }
 
+    @GetMapping("/categorization/stats")
+    public ResponseEntity<CategorizationStatsDto> getCategorizationStats() {
+        log.info("GET /api/admin/categorization/stats");
+        return ResponseEntity.ok(adminService.getCategorizationStats());
+    }
+
+    @PostMapping("/categorization/recategorize")
+    public ResponseEntity<RecategorizationJob> startRecategorization(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) Integer maxRowsPerSecond) {
+        log.info("POST /api/admin/categorization/recategorize — keyword={}, maxRowsPerSecond={}",
+                keyword, maxRowsPerSecond);
+        return ResponseEntity.ok(adminService.startRecategorization(keyword, maxRowsPerSecond));
+    }
+
+    @GetMapping("/categorization/jobs")
+    public ResponseEntity<List<RecategorizationJob>> getRecategorizationJobs() {
+        log.info("GET /api/admin/categorization/jobs");
+        return ResponseEntity.ok(adminService.getRecategorizationJobs());
+    }
+
+    @GetMapping("/categorization/jobs/{id}")
+    public ResponseEntity<RecategorizationJob> getRecategorizationJob(@PathVariable Long id) {
+        log.info("GET /api/admin/categorization/jobs/{}", id);
+        return ResponseEntity.ok(adminService.getRecategorizationJob(id));
+    }
+
+    @PutMapping("/categorization/jobs/{id}/throttle")
+    public ResponseEntity<RecategorizationJob> throttleRecategorization(
+            @PathVariable Long id,
+            @RequestBody Map<String, Integer> body) {
+        log.info("PUT /api/admin/categorization/jobs/{}/throttle — maxRowsPerSecond={}", id, body.get("maxRowsPerSecond"));
+        return ResponseEntity.ok(adminService.throttleRecategorization(id, body.get("maxRowsPerSecond")));
+    }
+
+    @PostMapping("/categorization/jobs/{id}/cancel")
+    public ResponseEntity<RecategorizationJob> cancelRecategorization(@PathVariable Long id) {
+        log.info("POST /api/admin/categorization/jobs/{}/cancel", id);
+        return ResponseEntity.ok(adminService.cancelRecategorization(id));
+    }
+
     // ─── Health ────────────────────────────────────────────────
 
     @GetMapping("/health/external-services")
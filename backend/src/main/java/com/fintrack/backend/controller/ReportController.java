@@ -1,5 +1,6 @@
 package com.fintrack.backend.controller;
 
+import com.fintrack.backend.dto.ImportResultDto;
 import com.fintrack.backend.service.ReportService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,24 +22,27 @@ public class ReportController {
     private final ReportService reportService;
 
     @GetMapping("/export")
-    public ResponseEntity<StreamingResponseBody> exportTransactions() {
-        log.info("GET /api/reports/export — streaming Excel export");
-        StreamingResponseBody stream = reportService.exportTransactionsStreaming();
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam(defaultValue = "xlsx") String format) {
+        ReportService.ExportFormat exportFormat = ReportService.ExportFormat.fromExtension(format);
+        log.info("GET /api/reports/export — streaming {} export", exportFormat.getExtension());
+        StreamingResponseBody stream = reportService.exportTransactionsStreaming(exportFormat);
 
         return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=FinTrack_Report.xlsx")
-                .contentType(
-                        MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=FinTrack_Report." + exportFormat.getExtension())
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
                 .body(stream);
     }
 
     @PostMapping("/import")
-    public ResponseEntity<String> importTransactions(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<?> importTransactions(@RequestParam("file") MultipartFile file) {
         log.info("POST /api/reports/import — file={}, size={} bytes", file.getOriginalFilename(), file.getSize());
         try {
-            reportService.importTransactions(file);
-            log.info("Import completed successfully for file={}", file.getOriginalFilename());
-            return ResponseEntity.ok("Transactions imported successfully.");
+            ImportResultDto result = reportService.importTransactions(file);
+            log.info("Import completed for file={}: {} imported, {} rejected", file.getOriginalFilename(),
+                    result.getImported(), result.getFailed());
+            return ResponseEntity.ok(result);
         } catch (IOException e) {
             log.error("Import failed for file={}: {}", file.getOriginalFilename(), e.getMessage(), e);
             return ResponseEntity.badRequest().body("Failed to import transactions: " + e.getMessage());
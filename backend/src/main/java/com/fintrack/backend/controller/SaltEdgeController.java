@@ -1,9 +1,11 @@
 package com.fintrack.backend.controller;
 
+import com.fintrack.backend.entity.SyncRun;
 import com.fintrack.backend.entity.Transaction;
 import com.fintrack.backend.entity.User;
 import com.fintrack.backend.repository.UserRepository;
 import com.fintrack.backend.service.SaltEdgeService;
+import com.fintrack.backend.service.SyncRunService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -22,6 +24,7 @@ public class SaltEdgeController {
 
     private final SaltEdgeService saltEdgeService;
     private final UserRepository userRepository;
+    private final SyncRunService syncRunService;
 
     @PostMapping("/connect_sessions/create")
     public ResponseEntity<Map<String, String>> createConnectSession(@RequestBody Map<String, String> request) {
@@ -72,9 +75,10 @@ public class SaltEdgeController {
     }
 
     @PostMapping("/sync")
-    public ResponseEntity<Map<String, Object>> syncTransactions() {
+    public ResponseEntity<Map<String, Object>> syncTransactions(@RequestParam(defaultValue = "false") boolean full) {
         User user = getAuthenticatedUser();
-        log.info("POST /api/saltedge/sync — userId={}, connectionId={}", user.getId(), user.getSaltEdgeConnectionId());
+        log.info("POST /api/saltedge/sync — userId={}, connectionId={}, full={}", user.getId(),
+                user.getSaltEdgeConnectionId(), full);
 
         if (user.getSaltEdgeConnectionId() == null || user.getSaltEdgeConnectionId().isBlank()) {
             log.warn("Sync attempted but no connection found for userId={}", user.getId());
@@ -82,6 +86,9 @@ public class SaltEdgeController {
                     .body(Map.of("error", "No Salt Edge connection found. Please connect your bank first."));
         }
 
+        if (full) {
+            saltEdgeService.resetCursor(user.getSaltEdgeConnectionId());
+        }
         List<Transaction> newTransactions = saltEdgeService.fetchTransactions(
                 user.getSaltEdgeConnectionId(), user);
 
@@ -91,6 +98,12 @@ public class SaltEdgeController {
                 "new_transactions", newTransactions.size()));
     }
 
+    @GetMapping("/runs")
+    public ResponseEntity<List<SyncRun>> getSyncRuns() {
+        User user = getAuthenticatedUser();
+        return ResponseEntity.ok(syncRunService.recentRuns(user.getId()));
+    }
+
     private User getAuthenticatedUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName();
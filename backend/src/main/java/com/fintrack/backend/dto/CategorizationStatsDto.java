@@ -0,0 +1,25 @@
+package com.fintrack.backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class CategorizationStatsDto {
+    private long indexVersion;
+    private int indexKeywords;
+    private int cacheSize;
+    private int cacheMaxSize;
+    private long cacheHits;
+    private long cacheNegativeHits;
+    private long cacheMisses;
+    private long cacheEvictions;
+    private long cacheExpirations;
+    private double cacheHitRate;
+    private int learningQueueDepth;
+    private long learnedMappings;
+    private long droppedMappings;
+    private long classifierExamples;
+    private long classifierConfident;
+    private long classifierUncertain;
+}
@@ -0,0 +1,27 @@
+package com.fintrack.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResultDto {
+    private long imported;
+    private long failed;
+    // The first rejected rows only; failed has the full count
+    private List<RowError> errors;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long row;
+        private String message;
+    }
+}
@@ -0,0 +1,26 @@
+package com.fintrack.backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Sent to {@code /user/queue/transactions} of the owner when transactions are added, so the
+ * client can patch its state instead of reloading everything.
+ */
+@Data
+@Builder
+public class TransactionDeltaEvent {
+    public static final String TRANSACTIONS_ADDED = "TRANSACTIONS_ADDED";
+
+    private String type;
+    private String connectionId;
+    private List<TransactionDto> transactions;
+    // Owner's balance after these transactions
+    private BigDecimal balance;
+    private List<String> categories;
+    private LocalDateTime sentAt;
+}
@@ -0,0 +1,69 @@
+package com.fintrack.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "recategorization_jobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecategorizationJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Normalized keyword whose transactions are rescanned; null rescans everything
+    private String keyword;
+
+    // Category the keyword mapped to before the change; rows still carrying it are treated
+    // as produced by the mapping and are re-evaluated along with bank-synced rows
+    private String previousCategory;
+
+    // The keyword's mapping was deleted: its rows that nothing matches any more go back to Uncategorized
+    @Builder.Default
+    private Boolean keywordRemoved = false;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private Status status = Status.PENDING;
+
+    // Checkpoint: every transaction id up to this one has been processed
+    @Builder.Default
+    private Long lastProcessedId = 0L;
+
+    private Long total;
+
+    @Builder.Default
+    private Long scanned = 0L;
+
+    @Builder.Default
+    private Long updated = 0L;
+
+    // Null uses categorization.recategorize.max-rows-per-second, 0 means unthrottled
+    private Integer maxRowsPerSecond;
+
+    private String error;
+
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    // Renewed with every checkpoint by the node running the job; also the claim token its writes are keyed on
+    private LocalDateTime heartbeatAt;
+
+    public enum Status {
+        PENDING, RUNNING, COMPLETED, FAILED, CANCELLED
+    }
+}
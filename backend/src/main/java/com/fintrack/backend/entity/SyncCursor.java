@@ -0,0 +1,39 @@
+package com.fintrack.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * How far a Salt Edge connection has been synced: the highest transaction id stored so far.
+ * The next sync asks for transactions from that id on instead of the whole history.
+ */
+@Entity
+@Table(name = "sync_cursors")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SyncCursor {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private String connectionId;
+
+    @Column(nullable = false)
+    private String lastTransactionId;
+
+    // Booking date of that transaction, for diagnostics
+    private LocalDate lastMadeOn;
+
+    @Builder.Default
+    private LocalDateTime updatedAt = LocalDateTime.now();
+}
@@ -0,0 +1,56 @@
+package com.fintrack.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "sync_jobs", indexes = @Index(name = "idx_sync_jobs_status_run_after", columnList = "status, runAfter"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SyncJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String connectionId;
+
+    private String customerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private Status status = Status.PENDING;
+
+    // Set to the connection id while the job waits, so each connection has at most one queued job
+    @Column(unique = true)
+    private String dedupKey;
+
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Builder.Default
+    private LocalDateTime runAfter = LocalDateTime.now();
+
+    private LocalDateTime lockedAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    private LocalDateTime finishedAt;
+
+    public enum Status {
+        PENDING, RUNNING, DONE, FAILED
+    }
+}
@@ -0,0 +1,69 @@
+package com.fintrack.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One sync of a Salt Edge connection, checkpointed after every stored batch.
+ */
+@Entity
+@Table(name = "sync_runs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SyncRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String connectionId;
+
+    private String customerId;
+
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private Status status = Status.RUNNING;
+
+    // Transaction id the run started from (null for a full walk)
+    private String startedFromId;
+
+    // Highest transaction id stored by this run so far
+    private String cursor;
+
+    @Builder.Default
+    private Integer batchesDone = 0;
+
+    @Builder.Default
+    private Long rowsInserted = 0L;
+
+    // Page requests repeated after transient failures
+    @Builder.Default
+    private Integer retries = 0;
+
+    @Column(length = 1000)
+    private String error;
+
+    @Builder.Default
+    private LocalDateTime startedAt = LocalDateTime.now();
+
+    // Refreshed at every checkpoint; a running run that stops beating was interrupted
+    @Builder.Default
+    private LocalDateTime heartbeatAt = LocalDateTime.now();
+
+    private LocalDateTime finishedAt;
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED, INTERRUPTED
+    }
+}
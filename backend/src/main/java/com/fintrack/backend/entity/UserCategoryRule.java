@@ -0,0 +1,38 @@
+package com.fintrack.backend.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "user_category_rules", uniqueConstraints = @UniqueConstraint(columnNames = { "user_id", "keyword" }))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserCategoryRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Normalized merchant string taken from the transaction the user re-categorized
+    @Column(nullable = false)
+    private String keyword;
+
+    @Column(nullable = false)
+    private String category;
+
+    @Builder.Default
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @JsonIgnore
+    private User user;
+}
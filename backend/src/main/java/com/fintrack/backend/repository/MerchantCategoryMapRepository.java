@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,4 +19,9 @@ public interface MerchantCategoryMapRepository extends JpaRepository<MerchantCat
     List<MerchantCategoryMap> findMatchingKeywords(@Param("merchantName") String merchantName);
 
     boolean existsByKeywordIgnoreCase(String keyword);
+
+    List<MerchantCategoryMap> findByKeywordIn(Collection<String> keywords);
+
+    @Query("SELECT COALESCE(MAX(m.id), 0) FROM MerchantCategoryMap m")
+    Long findMaxId();
 }
@@ -0,0 +1,64 @@
+package com.fintrack.backend.repository;
+
+import com.fintrack.backend.entity.RecategorizationJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface RecategorizationJobRepository extends JpaRepository<RecategorizationJob, Long> {
+
+    List<RecategorizationJob> findTop20ByOrderByIdDesc();
+
+    // Queued jobs nobody started and running jobs whose node stopped checkpointing
+    @Query("SELECT j FROM RecategorizationJob j WHERE (j.status = 'PENDING' AND j.createdAt < :staleBefore) " +
+            "OR (j.status = 'RUNNING' AND (j.heartbeatAt IS NULL OR j.heartbeatAt < :staleBefore)) ORDER BY j.id")
+    List<RecategorizationJob> findResumable(@Param("staleBefore") LocalDateTime staleBefore);
+
+    // Only one node can move a job to RUNNING; the lease it writes keys all of that node's later updates
+    @Modifying
+    @Transactional
+    @Query("UPDATE RecategorizationJob j SET j.status = :running, j.heartbeatAt = :lease, " +
+            "j.startedAt = COALESCE(j.startedAt, :lease) WHERE j.id = :id AND (j.status = 'PENDING' " +
+            "OR (j.status = 'RUNNING' AND (j.heartbeatAt IS NULL OR j.heartbeatAt < :staleBefore)))")
+    int claim(@Param("id") Long id, @Param("running") RecategorizationJob.Status running,
+            @Param("lease") LocalDateTime lease, @Param("staleBefore") LocalDateTime staleBefore);
+
+    // Progress is written with a targeted update so it never overwrites a concurrent cancel or throttle change;
+    // returns 0 once the job was cancelled or taken over
+    @Modifying
+    @Transactional
+    @Query("UPDATE RecategorizationJob j SET j.lastProcessedId = :lastId, j.scanned = :scanned, " +
+            "j.updated = :updated, j.heartbeatAt = :now " +
+            "WHERE j.id = :id AND j.status = 'RUNNING' AND j.heartbeatAt = :lease")
+    int saveProgress(@Param("id") Long id, @Param("lastId") Long lastId, @Param("scanned") Long scanned,
+            @Param("updated") Long updated, @Param("lease") LocalDateTime lease, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE RecategorizationJob j SET j.total = :total WHERE j.id = :id AND j.total IS NULL")
+    int initTotal(@Param("id") Long id, @Param("total") Long total);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE RecategorizationJob j SET j.status = :status, j.error = :error, j.finishedAt = :now " +
+            "WHERE j.id = :id AND j.status = 'RUNNING' AND j.heartbeatAt = :lease")
+    int finish(@Param("id") Long id, @Param("status") RecategorizationJob.Status status,
+            @Param("error") String error, @Param("lease") LocalDateTime lease, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE RecategorizationJob j SET j.status = :cancelled, j.finishedAt = :now " +
+            "WHERE j.id = :id AND j.status IN ('PENDING', 'RUNNING')")
+    int cancel(@Param("id") Long id, @Param("cancelled") RecategorizationJob.Status cancelled,
+            @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE RecategorizationJob j SET j.maxRowsPerSecond = :maxRowsPerSecond WHERE j.id = :id")
+    int updateMaxRowsPerSecond(@Param("id") Long id, @Param("maxRowsPerSecond") Integer maxRowsPerSecond);
+}
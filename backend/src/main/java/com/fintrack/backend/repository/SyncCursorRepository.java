@@ -0,0 +1,28 @@
+package com.fintrack.backend.repository;
+
+import com.fintrack.backend.entity.SyncCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface SyncCursorRepository extends JpaRepository<SyncCursor, Long> {
+
+    Optional<SyncCursor> findByConnectionId(String connectionId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE SyncCursor c SET c.lastTransactionId = :transactionId, c.lastMadeOn = :madeOn, c.updatedAt = :now " +
+            "WHERE c.connectionId = :connectionId")
+    int advance(@Param("connectionId") String connectionId, @Param("transactionId") String transactionId,
+            @Param("madeOn") LocalDate madeOn, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    int deleteByConnectionId(String connectionId);
+}
@@ -0,0 +1,69 @@
+package com.fintrack.backend.repository;
+
+import com.fintrack.backend.entity.SyncJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface SyncJobRepository extends JpaRepository<SyncJob, Long> {
+
+    Optional<SyncJob> findByDedupKey(String dedupKey);
+
+    long countByStatus(SyncJob.Status status);
+
+    // Row-locks the oldest due job; other workers skip it instead of waiting. Connections
+    // with a job already running are left alone so one connection never syncs twice at once.
+    @Query(value = "SELECT * FROM sync_jobs j WHERE j.status = 'PENDING' AND j.run_after <= :now " +
+            "AND NOT EXISTS (SELECT 1 FROM sync_jobs r WHERE r.connection_id = j.connection_id AND r.status = 'RUNNING') " +
+            "ORDER BY j.run_after, j.id LIMIT 1 FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<SyncJob> lockNextDue(@Param("now") LocalDateTime now);
+
+    // A job is stale once it was claimed before the lease and no sync run of its connection has
+    // heartbeated since; a long sync that keeps checkpointing keeps its job
+    @Modifying
+    @Query("UPDATE SyncJob j SET j.status = 'PENDING', j.lockedAt = null, j.runAfter = :now " +
+            "WHERE j.status = 'RUNNING' AND j.lockedAt < :staleBefore AND NOT EXISTS (SELECT 1 FROM SyncRun r " +
+            "WHERE r.connectionId = j.connectionId AND r.heartbeatAt >= :staleBefore)")
+    int requeueStale(@Param("staleBefore") LocalDateTime staleBefore, @Param("now") LocalDateTime now);
+
+    // The writes below only land while the caller still holds the claim it took at lockedAt;
+    // a job that was requeued and claimed again in the meantime is left to its new worker
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE SyncJob j SET j.status = 'DONE', j.lastError = null, j.finishedAt = :now " +
+            "WHERE j.id = :id AND j.status = 'RUNNING' AND j.lockedAt = :lockedAt")
+    int complete(@Param("id") Long id, @Param("lockedAt") LocalDateTime lockedAt, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE SyncJob j SET j.status = :status, j.lastError = :error, j.lockedAt = null, j.finishedAt = :now " +
+            "WHERE j.id = :id AND j.status = 'RUNNING' AND j.lockedAt = :lockedAt")
+    int finish(@Param("id") Long id, @Param("lockedAt") LocalDateTime lockedAt, @Param("status") SyncJob.Status status,
+            @Param("error") String error, @Param("now") LocalDateTime now);
+
+    // Fails with a unique violation when another job for the connection is already waiting
+    @Modifying
+    @Transactional
+    @Query("UPDATE SyncJob j SET j.status = 'PENDING', j.dedupKey = j.connectionId, j.lastError = :error, " +
+            "j.lockedAt = null, j.runAfter = :runAfter " +
+            "WHERE j.id = :id AND j.status = 'RUNNING' AND j.lockedAt = :lockedAt")
+    int retry(@Param("id") Long id, @Param("lockedAt") LocalDateTime lockedAt, @Param("error") String error,
+            @Param("runAfter") LocalDateTime runAfter);
+
+    @Query("SELECT j.connectionId AS connectionId, MAX(j.createdAt) AS lastQueuedAt FROM SyncJob j " +
+            "WHERE j.createdAt >= :since GROUP BY j.connectionId")
+    List<LastQueued> findLastQueuedSince(@Param("since") LocalDateTime since);
+
+    interface LastQueued {
+        String getConnectionId();
+
+        LocalDateTime getLastQueuedAt();
+    }
+}
@@ -0,0 +1,38 @@
+package com.fintrack.backend.repository;
+
+import com.fintrack.backend.entity.SyncRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SyncRunRepository extends JpaRepository<SyncRun, Long> {
+
+    List<SyncRun> findTop20ByUserIdOrderByIdDesc(Long userId);
+
+    List<SyncRun> findByStatusAndHeartbeatAtBefore(SyncRun.Status status, LocalDateTime staleBefore);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE SyncRun r SET r.cursor = COALESCE(:cursor, r.cursor), r.batchesDone = r.batchesDone + 1, " +
+            "r.rowsInserted = r.rowsInserted + :inserted, r.heartbeatAt = :now WHERE r.id = :id")
+    int checkpoint(@Param("id") Long id, @Param("cursor") String cursor, @Param("inserted") long inserted,
+            @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE SyncRun r SET r.retries = r.retries + 1, r.heartbeatAt = :now WHERE r.id = :id")
+    int recordRetry(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    // Only moves a run that is still RUNNING, so exactly one caller wins when several race
+    @Modifying
+    @Transactional
+    @Query("UPDATE SyncRun r SET r.status = :status, r.error = :error, r.finishedAt = :now " +
+            "WHERE r.id = :id AND r.status = 'RUNNING'")
+    int finish(@Param("id") Long id, @Param("status") SyncRun.Status status, @Param("error") String error,
+            @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,95 @@
+package com.fintrack.backend.repository;
+
+import com.fintrack.backend.entity.Transaction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk writes that JPA cannot express: one multi-row INSERT per chunk (transaction ids
+ * are IDENTITY columns, so Hibernate cannot batch them). Bank sync adds
+ * {@code ON CONFLICT (external_id) DO NOTHING}, so rows another sync already stored are
+ * skipped by the database instead of failing the batch.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransactionBulkRepository {
+
+    // Eight bind parameters per row; stays well below the driver's 32767 limit
+    private static final int MAX_ROWS_PER_STATEMENT = 1000;
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO transactions (amount, category, description, date, currency, external_id, type, user_id) VALUES ";
+    private static final String ROW = "(?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String ON_CONFLICT_SUFFIX = " ON CONFLICT (external_id) DO NOTHING RETURNING id, external_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert the rows, skipping external ids that already exist. Inserted rows get their
+     * generated id set and are returned; skipped rows are not.
+     */
+    public List<Transaction> insertIgnoringDuplicates(List<Transaction> rows) {
+        // Duplicates inside one page would only be skipped by the database anyway
+        Map<String, Transaction> byExternalId = new LinkedHashMap<>();
+        for (Transaction t : rows) {
+            byExternalId.putIfAbsent(t.getExternalId(), t);
+        }
+        List<Transaction> unique = new ArrayList<>(byExternalId.values());
+
+        List<Transaction> inserted = new ArrayList<>();
+        for (int from = 0; from < unique.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<Transaction> chunk = unique.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, unique.size()));
+            jdbcTemplate.query(insertSql(chunk.size()) + ON_CONFLICT_SUFFIX, rs -> {
+                Transaction t = byExternalId.get(rs.getString("external_id"));
+                if (t != null) {
+                    t.setId(rs.getLong("id"));
+                    inserted.add(t);
+                }
+            }, args(chunk));
+        }
+        return inserted;
+    }
+
+    /**
+     * Insert the rows as they are, for file imports that carry no external ids. Returns the
+     * number of rows written; generated ids are not read back.
+     */
+    public int insertAll(List<Transaction> rows) {
+        int written = 0;
+        for (int from = 0; from < rows.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<Transaction> chunk = rows.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, rows.size()));
+            written += jdbcTemplate.update(insertSql(chunk.size()), args(chunk));
+        }
+        return written;
+    }
+
+    private static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? ROW : ", " + ROW);
+        }
+        return sql.toString();
+    }
+
+    private static Object[] args(List<Transaction> chunk) {
+        List<Object> args = new ArrayList<>(chunk.size() * 8);
+        for (Transaction t : chunk) {
+            args.add(t.getAmount());
+            args.add(t.getCategory());
+            args.add(t.getDescription());
+            args.add(t.getDate() != null ? Timestamp.valueOf(t.getDate()) : null);
+            args.add(t.getCurrency());
+            args.add(t.getExternalId());
+            args.add(t.getType() != null ? t.getType().name() : null);
+            args.add(t.getUser() != null ? t.getUser().getId() : null);
+        }
+        return args.toArray();
+    }
+}
@@ -2,14 +2,22 @@ package com.fintrack.backend.repository;
 
 import com.fintrack.backend.entity.Transaction;
 import com.fintrack.backend.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
@@ -17,6 +25,14 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
 
     List<Transaction> findByUserId(Long userId);
 
+    // Export cursor: fetched from the driver in chunks, never dirty-checked. Needs an open
+    // transaction, and the caller must close the stream
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT t FROM Transaction t WHERE t.user.id = :userId ORDER BY t.id")
+    Stream<Transaction> streamByUserId(@Param("userId") Long userId);
+
     List<Transaction> findByUserIdAndDateBetween(Long userId, LocalDateTime start, LocalDateTime end);
 
     List<Transaction> findByUserIdAndCategory(Long userId, String category);
@@ -25,6 +41,13 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
 
     List<Transaction> findByExternalIdIn(List<String> externalIds);
 
+    // Ids only, for the dedup check during sync; no entities are loaded
+    @Query("SELECT t.externalId FROM Transaction t WHERE t.externalId IN :externalIds")
+    List<String> findExistingExternalIds(@Param("externalIds") Collection<String> externalIds);
+
+    @Query("SELECT t.externalId FROM Transaction t WHERE t.user.id = :userId AND t.externalId IS NOT NULL")
+    List<String> findExternalIdsByUserId(@Param("userId") Long userId);
+
     @Query("SELECT COALESCE(SUM(CASE WHEN t.type = 'INCOME' THEN t.amount ELSE -t.amount END), 0) FROM Transaction t WHERE t.user.id = :userId")
     BigDecimal calculateBalanceByUserId(@Param("userId") Long userId);
 
@@ -42,4 +65,32 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
 
     @Query("SELECT COUNT(DISTINCT t.user.id) FROM Transaction t WHERE t.date >= :since")
     long countActiveUsersSince(@Param("since") LocalDateTime since);
+
+    // Rows the merchant map may have categorized: bank-synced ones, plus manual/imported rows
+    // that still carry the changed mapping's previous category (a null category matches none)
+    @Query("SELECT t.id AS id, t.user.id AS userId, t.description AS description, t.category AS category " +
+            "FROM Transaction t WHERE t.id > :afterId " +
+            "AND (t.externalId IS NOT NULL OR t.category = :previousCategory) ORDER BY t.id")
+    List<CategoryRow> findRecategorizableRowsAfter(@Param("afterId") Long afterId,
+            @Param("previousCategory") String previousCategory, Pageable pageable);
+
+    @Query("SELECT COUNT(t) FROM Transaction t WHERE t.externalId IS NOT NULL OR t.category = :previousCategory")
+    long countRecategorizable(@Param("previousCategory") String previousCategory);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Transaction t SET t.category = :category WHERE t.id IN :ids")
+    int updateCategory(@Param("ids") Collection<Long> ids, @Param("category") String category);
+
+    interface DescriptionCategory {
+        String getDescription();
+
+        String getCategory();
+    }
+
+    interface CategoryRow extends DescriptionCategory {
+        Long getId();
+
+        Long getUserId();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.fintrack.backend.repository;
+
+import com.fintrack.backend.entity.UserCategoryRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface UserCategoryRuleRepository extends JpaRepository<UserCategoryRule, Long> {
+    List<UserCategoryRule> findByUserId(Long userId);
+
+    Optional<UserCategoryRule> findByUserIdAndKeyword(Long userId, String keyword);
+
+    List<UserCategoryRule> findByUserIdIn(Collection<Long> userIds);
+}
@@ -1,13 +1,18 @@
 package com.fintrack.backend.repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import com.fintrack.backend.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -20,4 +25,33 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE LOWER(u.username) LIKE LOWER(CONCAT('%', :search, '%')) " +
             "OR LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%'))")
     Page<User> searchByUsernameOrEmail(@Param("search") String search, Pageable pageable);
+
+    // Relative to the stored balance in one statement, so concurrent syncs of the same user add up
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.balance = COALESCE(u.balance, 0) + :delta WHERE u.id = :userId")
+    int adjustBalance(@Param("userId") Long userId, @Param("delta") BigDecimal delta);
+
+    @Query("SELECT u.balance FROM User u WHERE u.id = :userId")
+    BigDecimal findBalanceById(@Param("userId") Long userId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.lastLoginAt = :at WHERE u.id = :userId")
+    int touchLastLogin(@Param("userId") Long userId, @Param("at") LocalDateTime at);
+
+    @Query("SELECT u.id AS id, u.saltEdgeCustomerId AS customerId, u.saltEdgeConnectionId AS connectionId, " +
+            "u.lastLoginAt AS lastLoginAt FROM User u WHERE u.saltEdgeConnectionId IS NOT NULL " +
+            "AND u.saltEdgeConnectionId <> '' AND u.isBlocked = false")
+    List<SyncTarget> findSyncTargets();
+
+    interface SyncTarget {
+        Long getId();
+
+        String getCustomerId();
+
+        String getConnectionId();
+
+        LocalDateTime getLastLoginAt();
+    }
 }
@@ -0,0 +1,67 @@
+package com.fintrack.backend.security;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+/**
+ * Authenticates STOMP sessions with the same JWT as the REST API, sent as an
+ * {@code Authorization: Bearer} header of the CONNECT frame. The session's user is the
+ * token's subject (the email), which is what user destinations are addressed by.
+ * Frames other than CONNECT are refused on unauthenticated sessions.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private final JwtUtils jwtUtils;
+    private final UserDetailsService userDetailsService;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+
+        switch (accessor.getCommand()) {
+            case CONNECT -> accessor.setUser(authenticate(accessor.getFirstNativeHeader("Authorization")));
+            case SUBSCRIBE, SEND -> {
+                if (accessor.getUser() == null) {
+                    throw new AuthenticationCredentialsNotFoundException("STOMP session is not authenticated");
+                }
+            }
+            default -> {
+            }
+        }
+        return message;
+    }
+
+    private UsernamePasswordAuthenticationToken authenticate(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            throw new AuthenticationCredentialsNotFoundException("Missing Bearer token on STOMP CONNECT");
+        }
+        String jwt = authHeader.substring(7);
+        try {
+            UserDetails userDetails = userDetailsService.loadUserByUsername(jwtUtils.extractUsername(jwt));
+            if (jwtUtils.isTokenValid(jwt, userDetails)) {
+                log.debug("STOMP session authenticated for {}", userDetails.getUsername());
+                return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+            }
+        } catch (Exception e) {
+            log.warn("Rejected STOMP CONNECT: {}", e.getMessage());
+        }
+        throw new BadCredentialsException("Invalid token on STOMP CONNECT");
+    }
+}
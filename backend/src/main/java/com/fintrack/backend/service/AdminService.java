@@ -4,6 +4,7 @@ import com.fintrack.backend.dto.AdminCreateTransactionDto;
 import com.fintrack.backend.dto.AdminCreateUserDto;
 import com.fintrack.backend.dto.AdminStatsDto;
 import com.fintrack.backend.dto.AdminUpdateUserDto;
+import com.fintrack.backend.dto.CategorizationStatsDto;
 import com.fintrack.backend.dto.TransactionDto;
 import com.fintrack.backend.dto.UserDetailDto;
 import com.fintrack.backend.entity.*;
@@ -44,6 +45,11 @@ public class AdminService {
     private final PasswordEncoder passwordEncoder;
     private final SaltEdgeService saltEdgeService;
     private final GeminiService geminiService;
+    private final MerchantIndexService merchantIndexService;
+    private final CategorizationService categorizationService;
+    private final MerchantLearningQueue merchantLearningQueue;
+    private final MerchantClassifierService merchantClassifierService;
+    private final RecategorizationService recategorizationService;
 
     public AdminStatsDto getSystemStats() {
         log.info("Fetching admin system stats");
@@ -256,13 +262,70 @@ public class AdminService {
                 .createdAt(LocalDateTime.now())
                 .build();
         logAudit("CREATE_MERCHANT_MAP", "MerchantCategoryMap", null, keyword + " → " + category);
-        return merchantCategoryMapRepository.save(map);
+        MerchantCategoryMap saved = merchantCategoryMapRepository.save(map);
+        merchantIndexService.requestRebuild();
+        merchantClassifierService.learn(keyword, category);
+        recategorizationService.submit(keyword, null);
+        return saved;
     }
 
     @Transactional
     public void deleteMerchantMapping(Long id) {
-        merchantCategoryMapRepository.deleteById(id);
+        MerchantCategoryMap map = merchantCategoryMapRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Merchant mapping not found"));
+        merchantCategoryMapRepository.delete(map);
         logAudit("DELETE_MERCHANT_MAP", "MerchantCategoryMap", id, "Deleted mapping");
+        merchantIndexService.requestRebuild();
+        // Re-run the remaining map and user rules over the rows this mapping categorized
+        recategorizationService.submitMappingChange(map.getKeyword(), map.getCategory(), true);
+    }
+
+    public RecategorizationJob startRecategorization(String keyword, Integer maxRowsPerSecond) {
+        RecategorizationJob job = recategorizationService.submit(keyword, maxRowsPerSecond);
+        logAudit("START_RECATEGORIZATION", "RecategorizationJob", job.getId(),
+                job.getKeyword() != null ? "keyword=" + job.getKeyword() : "all transactions");
+        return job;
+    }
+
+    public List<RecategorizationJob> getRecategorizationJobs() {
+        return recategorizationService.recentJobs();
+    }
+
+    public RecategorizationJob getRecategorizationJob(Long id) {
+        return recategorizationService.getJob(id);
+    }
+
+    public RecategorizationJob throttleRecategorization(Long id, Integer maxRowsPerSecond) {
+        logAudit("THROTTLE_RECATEGORIZATION", "RecategorizationJob", id, "maxRowsPerSecond=" + maxRowsPerSecond);
+        return recategorizationService.throttle(id, maxRowsPerSecond);
+    }
+
+    public RecategorizationJob cancelRecategorization(Long id) {
+        logAudit("CANCEL_RECATEGORIZATION", "RecategorizationJob", id, "Cancelled");
+        return recategorizationService.cancel(id);
+    }
+
+    public CategorizationStatsDto getCategorizationStats() {
+        MerchantIndexService.Snapshot index = merchantIndexService.snapshot();
+        CategorizationCache.Stats cache = categorizationService.cacheStats();
+        return CategorizationStatsDto.builder()
+                .indexVersion(index.version())
+                .indexKeywords(index.matcher().size())
+                .cacheSize(cache.size())
+                .cacheMaxSize(cache.maxSize())
+                .cacheHits(cache.hits())
+                .cacheNegativeHits(cache.negativeHits())
+                .cacheMisses(cache.misses())
+                .cacheEvictions(cache.evictions())
+                .cacheExpirations(cache.expirations())
+                .cacheHitRate(cache.hitRate())
+                .learningQueueDepth(merchantLearningQueue.depth())
+                .learnedMappings(merchantLearningQueue.learnedCount())
+                .droppedMappings(merchantLearningQueue.droppedCount())
+                .classifierExamples(merchantClassifierService.trainedExamples())
+                .classifierConfident(merchantClassifierService.confidentPredictions())
+                .classifierUncertain(merchantClassifierService.uncertainPredictions())
+                .build();
     }
 
     // ─── Health ────────────────────────────────────────────────
@@ -19,6 +19,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Service
 @RequiredArgsConstructor
@@ -78,6 +79,8 @@ public class AuthService {
         });
 
         log.info("Login successful for user ID: {}", user.getId());
+        // Drives how often the background bank sync refreshes this user
+        userRepository.touchLastLogin(user.getId(), LocalDateTime.now());
         log.debug("JWT Token generated.");
 
         return new AuthResponse(token, user.getId(), user.getUsername(), user.getEmail(), user.getRole().name(),
@@ -0,0 +1,80 @@
+package com.fintrack.backend.service;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Fixed-size Bloom filter over strings. {@link #mightContain} never returns false for an
+ * added value; it returns true for an absent one with about the false-positive rate the
+ * filter was sized for, as long as no more than the expected number of values are added.
+ *
+ * Thread-safe: adds and lookups synchronize on the filter.
+ */
+public final class BloomFilter {
+
+    private final long[] bits;
+    private final int bitCount;
+    private final int hashCount;
+    private final int expectedInsertions;
+    private int insertions;
+
+    public BloomFilter(int expectedInsertions, double falsePositiveRate) {
+        int n = Math.max(1, expectedInsertions);
+        double p = Math.min(0.5, Math.max(1e-9, falsePositiveRate));
+        long m = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+        this.bitCount = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, m));
+        this.bits = new long[(bitCount + 63) / 64];
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+        this.expectedInsertions = n;
+    }
+
+    public synchronized void add(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = index(h1 + i * h2);
+            bits[bit >>> 6] |= 1L << bit;
+        }
+        insertions++;
+    }
+
+    public synchronized boolean mightContain(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = index(h1 + i * h2);
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * True once more values were added than the filter was sized for, so its false-positive
+     * rate is above the target.
+     */
+    public synchronized boolean isSaturated() {
+        return insertions > expectedInsertions;
+    }
+
+    private int index(int combined) {
+        return (combined & Integer.MAX_VALUE) % bitCount;
+    }
+
+    // 64-bit FNV-1a with a murmur finalizer; the halves serve as the two base hashes
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe53e87d5L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
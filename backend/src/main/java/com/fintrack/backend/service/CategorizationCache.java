@@ -0,0 +1,116 @@
+package com.fintrack.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded LRU memo of AI categorization results, keyed by normalized merchant string.
+ * "Uncategorized" and "Other" answers are negative entries with their own, shorter TTL,
+ * so a merchant the AI cannot place is not re-sent on every sync.
+ */
+@Component
+public class CategorizationCache {
+
+    private final int maxSize;
+    private final long positiveTtlMillis;
+    private final long negativeTtlMillis;
+    private final LongSupplier clock;
+
+    // Access-ordered: iteration starts at the least recently used entry
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+    private long hits;
+    private long negativeHits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    @Autowired
+    public CategorizationCache(@Value("${categorization.cache.max-size:10000}") int maxSize,
+            @Value("${categorization.cache.ttl-minutes:1440}") long positiveTtlMinutes,
+            @Value("${categorization.cache.negative-ttl-minutes:60}") long negativeTtlMinutes) {
+        this(maxSize, positiveTtlMinutes * 60_000, negativeTtlMinutes * 60_000, System::currentTimeMillis);
+    }
+
+    CategorizationCache(int maxSize, long positiveTtlMillis, long negativeTtlMillis, LongSupplier clock) {
+        this.maxSize = Math.max(1, maxSize);
+        this.positiveTtlMillis = positiveTtlMillis;
+        this.negativeTtlMillis = negativeTtlMillis;
+        this.clock = clock;
+    }
+
+    public static String key(String merchantName) {
+        String normalized = MerchantNormalizer.normalize(merchantName);
+        // Descriptions made only of noise still need a stable key
+        return normalized.isEmpty()
+                ? merchantName.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ")
+                : normalized;
+    }
+
+    public static boolean isNegative(String category) {
+        return category == null || "Uncategorized".equals(category) || "Other".equals(category);
+    }
+
+    /**
+     * Returns the cached category, or null on a miss or an expired entry.
+     */
+    public synchronized String get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (entry.expiresAt() <= clock.getAsLong()) {
+            entries.remove(key);
+            expirations++;
+            misses++;
+            return null;
+        }
+        if (entry.negative()) {
+            negativeHits++;
+        } else {
+            hits++;
+        }
+        return entry.category();
+    }
+
+    public synchronized void put(String key, String category) {
+        String value = category != null ? category : "Uncategorized";
+        boolean negative = isNegative(value);
+        long ttl = negative ? negativeTtlMillis : positiveTtlMillis;
+        entries.put(key, new Entry(value, negative, clock.getAsLong() + ttl));
+
+        if (entries.size() > maxSize) {
+            Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+            while (entries.size() > maxSize && it.hasNext()) {
+                it.next();
+                it.remove();
+                evictions++;
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized Stats stats() {
+        long lookups = hits + negativeHits + misses;
+        double hitRate = lookups == 0 ? 0 : (double) (hits + negativeHits) / lookups;
+        return new Stats(entries.size(), maxSize, hits, negativeHits, misses, evictions, expirations, hitRate);
+    }
+
+    private record Entry(String category, boolean negative, long expiresAt) {
+    }
+
+    public record Stats(int size, int maxSize, long hits, long negativeHits, long misses,
+            long evictions, long expirations, double hitRate) {
+    }
+}
@@ -1,5 +1,7 @@
 package com.fintrack.backend.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fintrack.backend.dto.GeminiDTOs;
 import com.fintrack.backend.entity.MerchantCategoryMap;
 import com.fintrack.backend.repository.MerchantCategoryMapRepository;
@@ -14,8 +16,13 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -24,14 +31,35 @@ public class CategorizationService {
 
     private final MerchantCategoryMapRepository merchantCategoryMapRepository;
     private final RestTemplate restTemplate;
+    private final MerchantIndexService merchantIndexService;
+    private final CategorizationCache categorizationCache;
+    private final MerchantLearningQueue merchantLearningQueue;
+    private final MerchantClassifierService merchantClassifierService;
+    private final UserCategoryRuleService userCategoryRuleService;
 
     @Value("${gemini.api-key}")
     private String apiKey;
 
+    @Value("${categorization.ai.batch-size:40}")
+    private int aiBatchSize = 40;
+
+    @Value("${categorization.fuzzy.min-similarity:0.8}")
+    private double fuzzyMinSimilarity = 0.8;
+
     private static final String GEMINI_API_URL = "https://generativelanguage.googleapis.com/v1beta/models/gemini-2.0-flash:generateContent?key=";
 
+    private static final String AI_CATEGORIES = "Food, Transport, Shopping, Entertainment, Utilities, Health, "
+            + "Education, Salary, Subscriptions, Transfers, Other";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    public CategorizationCache.Stats cacheStats() {
+        return categorizationCache.stats();
+    }
+
     /**
-     * Hybrid categorization: Local keyword map first, then AI fallback.
+     * Hybrid categorization: Local keyword map first, then the local classifier, then cached
+     * AI answers, then AI fallback.
      * Returns the category string (e.g. "Food", "Transport").
      */
     public String categorize(String merchantName) {
@@ -39,48 +67,164 @@ public class CategorizationService {
             return "Uncategorized";
         }
 
-        // Level 1: Local keyword map (fast, free)
+        // Level 1: Local keyword map, exact then fuzzy (fast, free)
         String localMatch = matchLocal(merchantName);
         if (localMatch != null) {
             log.debug("Local match for '{}': {}", merchantName, localMatch);
             return localMatch;
         }
 
-        // Level 2: AI fallback (Gemini Flash)
+        // Level 2: local statistical classifier, confident answers only
+        String predicted = merchantClassifierService.classify(merchantName);
+        if (predicted != null) {
+            return predicted;
+        }
+
+        // Level 3: memoized AI answers, including recent failures
+        String key = CategorizationCache.key(merchantName);
+        String cached = categorizationCache.get(key);
+        if (cached != null) {
+            log.debug("Cached category for '{}': {}", merchantName, cached);
+            return cached;
+        }
+
+        // Level 4: AI fallback (Gemini Flash)
+        String category;
         try {
-            return categorizeWithAI(merchantName);
+            category = categorizeWithAI(merchantName);
         } catch (Exception e) {
             log.error("AI categorization failed for '{}': {}", merchantName, e.getMessage());
-            return "Uncategorized";
+            category = "Uncategorized";
         }
+        categorizationCache.put(key, category);
+        return category;
     }
 
-    private String matchLocal(String merchantName) {
-        String lower = merchantName.toLowerCase();
+    /**
+     * Keyword index only (exact, then fuzzy); no classifier, cache or AI. Returns null on a miss.
+     */
+    public String matchLocal(String merchantName) {
+        MerchantIndexService.Snapshot index = merchantIndexService.snapshot();
+        String exact = index.matcher().match(merchantName);
+        if (exact != null) {
+            return exact;
+        }
+        MerchantFuzzyIndex.Match fuzzy = index.fuzzy().find(merchantName, fuzzyMinSimilarity);
+        if (fuzzy != null) {
+            log.debug("Fuzzy match for '{}': {} ({})", merchantName, fuzzy.keyword(), fuzzy.similarity());
+            return fuzzy.category();
+        }
+        return null;
+    }
 
-        List<MerchantCategoryMap> matches = merchantCategoryMapRepository.findMatchingKeywords(merchantName);
-        if (!matches.isEmpty()) {
-            return matches.get(0).getCategory();
+    /**
+     * {@link #categorizeAll(Collection)} for one user's transactions: the user's own rules,
+     * learned from their manual re-categorizations, take precedence over everything else.
+     */
+    public Map<String, String> categorizeAll(Long userId, Collection<String> merchantNames) {
+        Map<String, String> result = new HashMap<>();
+        List<String> rest = new ArrayList<>();
+        for (String merchantName : merchantNames) {
+            String own = userCategoryRuleService.match(userId, merchantName);
+            if (own != null) {
+                result.put(merchantName, own);
+            } else {
+                rest.add(merchantName);
+            }
+        }
+        if (!rest.isEmpty()) {
+            result.putAll(categorizeAll(rest));
         }
+        return result;
+    }
 
-        // Fallback: iterate all keywords for substring match (handles edge cases)
-        List<MerchantCategoryMap> all = merchantCategoryMapRepository.findAll();
-        for (MerchantCategoryMap map : all) {
-            if (lower.contains(map.getKeyword().toLowerCase())) {
-                return map.getCategory();
+    /**
+     * Batch variant of {@link #categorize(String)} used by bank sync. Local, classifier and cache misses
+     * are de-duplicated and sent to Gemini in chunks of {@code categorization.ai.batch-size},
+     * one prompt per chunk instead of one per transaction.
+     * Returns a category for every non-blank input.
+     */
+    public Map<String, String> categorizeAll(Collection<String> merchantNames) {
+        Map<String, String> result = new HashMap<>();
+        // Local misses grouped by cache key; the first spelling is what the AI sees
+        Map<String, List<String>> misses = new LinkedHashMap<>();
+
+        for (String merchantName : merchantNames) {
+            if (merchantName == null || merchantName.isBlank() || result.containsKey(merchantName)) {
+                continue;
+            }
+            String localMatch = matchLocal(merchantName);
+            if (localMatch == null) {
+                localMatch = merchantClassifierService.classify(merchantName);
+            }
+            if (localMatch != null) {
+                result.put(merchantName, localMatch);
+                continue;
+            }
+            String key = CategorizationCache.key(merchantName);
+            List<String> spellings = misses.get(key);
+            if (spellings != null) {
+                spellings.add(merchantName);
+                continue;
+            }
+            String cached = categorizationCache.get(key);
+            if (cached != null) {
+                result.put(merchantName, cached);
+            } else {
+                misses.computeIfAbsent(key, k -> new ArrayList<>()).add(merchantName);
             }
         }
 
-        return null;
+        if (!misses.isEmpty()) {
+            List<String> keys = new ArrayList<>(misses.keySet());
+            int batchSize = Math.max(1, aiBatchSize);
+            log.info("Batch categorization: {} resolved locally or from cache, {} sent to AI",
+                    result.size(), keys.size());
+            for (int from = 0; from < keys.size(); from += batchSize) {
+                List<String> chunkKeys = keys.subList(from, Math.min(from + batchSize, keys.size()));
+                List<String> chunk = chunkKeys.stream().map(k -> misses.get(k).get(0)).toList();
+                Map<String, String> answers = Collections.emptyMap();
+                try {
+                    answers = categorizeBatchWithAI(chunk);
+                } catch (Exception e) {
+                    log.error("AI batch categorization failed for {} merchants: {}", chunk.size(), e.getMessage());
+                }
+                for (String key : chunkKeys) {
+                    List<String> spellings = misses.get(key);
+                    String category = answers.getOrDefault(spellings.get(0), "Uncategorized");
+                    categorizationCache.put(key, category);
+                    spellings.forEach(m -> result.put(m, category));
+                }
+            }
+        }
+        return result;
     }
 
     private String categorizeWithAI(String merchantName) {
         String prompt = "Categorize this financial transaction merchant/description into exactly ONE category. " +
-                "Choose from: Food, Transport, Shopping, Entertainment, Utilities, Health, Education, Salary, " +
-                "Subscriptions, Transfers, Other. " +
+                "Choose from: " + AI_CATEGORIES + ". " +
                 "Respond with ONLY a JSON object: {\"category\":\"CategoryName\",\"confidence\":0.95}\n\n" +
                 "Merchant: " + merchantName;
 
+        String raw = callGemini(prompt);
+        return raw != null ? parseAIResponse(raw, merchantName) : "Uncategorized";
+    }
+
+    private Map<String, String> categorizeBatchWithAI(List<String> merchantNames) {
+        StringBuilder prompt = new StringBuilder()
+                .append("Categorize each financial transaction merchant/description below into exactly ONE category. ")
+                .append("Choose from: ").append(AI_CATEGORIES).append(". ")
+                .append("Respond with ONLY a JSON array containing one object per merchant, using its number: ")
+                .append("[{\"index\":1,\"category\":\"CategoryName\",\"confidence\":0.95}]\n\n");
+        for (int i = 0; i < merchantNames.size(); i++) {
+            prompt.append(i + 1).append(". ").append(merchantNames.get(i).replace('\n', ' ')).append('\n');
+        }
+
+        String raw = callGemini(prompt.toString());
+        return raw != null ? parseAIBatchResponse(raw, merchantNames) : Collections.emptyMap();
+    }
+
+    private String callGemini(String prompt) {
         GeminiDTOs.GeminiRequest request = GeminiDTOs.GeminiRequest.builder()
                 .contents(Collections.singletonList(GeminiDTOs.Content.builder()
                         .role("user")
@@ -102,12 +246,11 @@ public class CategorizationService {
             GeminiDTOs.Candidate candidate = body.getCandidates().get(0);
             if (candidate.getContent() != null && candidate.getContent().getParts() != null
                     && !candidate.getContent().getParts().isEmpty()) {
-                String raw = candidate.getContent().getParts().get(0).getText().trim();
-                return parseAIResponse(raw, merchantName);
+                return candidate.getContent().getParts().get(0).getText().trim();
             }
         }
 
-        return "Uncategorized";
+        return null;
     }
 
     private String parseAIResponse(String raw, String merchantName) {
@@ -138,10 +281,7 @@ public class CategorizationService {
                 }
             }
 
-            // Self-learning: if high confidence, save to local map
-            if (confidence > 0.9 && !category.equals("Uncategorized") && !category.equals("Other")) {
-                selfLearn(merchantName, category);
-            }
+            learnIfConfident(merchantName, category, confidence);
 
             log.info("AI categorized '{}' as '{}' (confidence: {})", merchantName, category, confidence);
             return category;
@@ -151,25 +291,54 @@ public class CategorizationService {
         }
     }
 
+    private Map<String, String> parseAIBatchResponse(String raw, List<String> merchantNames) {
+        Map<String, String> result = new HashMap<>();
+        try {
+            String cleaned = raw.replaceAll("```json\\s*", "").replaceAll("```\\s*", "").trim();
+            int start = cleaned.indexOf('[');
+            int end = cleaned.lastIndexOf(']');
+            if (start < 0 || end < start) {
+                log.warn("AI batch response is not a JSON array: {}", raw);
+                return result;
+            }
+
+            JsonNode array = OBJECT_MAPPER.readTree(cleaned.substring(start, end + 1));
+            for (JsonNode item : array) {
+                int index = item.path("index").asInt(0);
+                String category = item.path("category").asText("");
+                if (index < 1 || index > merchantNames.size() || category.isBlank()) {
+                    continue;
+                }
+                String merchantName = merchantNames.get(index - 1);
+                double confidence = item.path("confidence").asDouble(0);
+                result.put(merchantName, category);
+                learnIfConfident(merchantName, category, confidence);
+            }
+            log.info("AI batch categorized {}/{} merchants", result.size(), merchantNames.size());
+        } catch (Exception e) {
+            log.error("Failed to parse AI batch response: {}", raw, e);
+        }
+        return result;
+    }
+
+    // Self-learning: if high confidence, save to local map
+    private void learnIfConfident(String merchantName, String category, double confidence) {
+        if (confidence > 0.9 && !category.equals("Uncategorized") && !category.equals("Other")) {
+            selfLearn(merchantName, category);
+        }
+    }
+
     private void selfLearn(String merchantName, String category) {
         // Extract a clean keyword from the merchant name
-        String keyword = merchantName.trim().toLowerCase();
-
-        // Only add if not already in the map
-        if (!merchantCategoryMapRepository.existsByKeywordIgnoreCase(keyword)) {
-            try {
-                MerchantCategoryMap newMapping = MerchantCategoryMap.builder()
-                        .keyword(keyword)
-                        .category(category)
-                        .source(MerchantCategoryMap.Source.AI_LEARNED)
-                        .createdAt(LocalDateTime.now())
-                        .build();
-                merchantCategoryMapRepository.save(newMapping);
-                log.info("Self-learned mapping: '{}' → '{}'", keyword, category);
-            } catch (Exception e) {
-                log.warn("Failed to save self-learned mapping for '{}': {}", keyword, e.getMessage());
-            }
+        String keyword = MerchantNormalizer.normalize(merchantName);
+        if (keyword.length() < 3) {
+            log.debug("Not learning '{}': nothing left after normalization", merchantName);
+            return;
         }
+
+        // Persisted in batches off the sync path; duplicates are dropped at flush time
+        merchantLearningQueue.enqueue(keyword, category);
+        log.debug("Queued self-learned mapping: '{}' → '{}'", keyword, category);
     }
 
     /**
@@ -212,5 +381,6 @@ public class CategorizationService {
             }
         }
         log.info("Seeded {} default merchant category mappings", defaults.length);
+        merchantIndexService.rebuildNow();
     }
 }
@@ -0,0 +1,135 @@
+package com.fintrack.backend.service;
+
+import com.fintrack.backend.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Answers "which of these Salt Edge ids are already stored?" for a sync page without
+ * loading transactions. Each user gets a Bloom filter of their external ids, built on
+ * first use from a projection query and extended as pages are inserted. Ids the filter
+ * rules out are new; only possible hits are checked against the database.
+ *
+ * Filters live in a bounded LRU so only recently syncing users occupy memory. A stale
+ * filter (rows inserted on another node) can only under-report; those rows are skipped
+ * by the conflict-tolerant insert.
+ */
+@Component
+@Slf4j
+public class ExternalIdIndex {
+
+    private final TransactionRepository transactionRepository;
+    private final int maxUsers;
+    private final double falsePositiveRate;
+
+    // Access-ordered: iteration starts at the least recently used user
+    private final LinkedHashMap<Long, BloomFilter> filters = new LinkedHashMap<>(64, 0.75f, true);
+
+    private final AtomicLong checked = new AtomicLong();
+    private final AtomicLong verified = new AtomicLong();
+
+    @Autowired
+    public ExternalIdIndex(TransactionRepository transactionRepository,
+            @Value("${saltedge.dedup.max-users:1000}") int maxUsers,
+            @Value("${saltedge.dedup.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.transactionRepository = transactionRepository;
+        this.maxUsers = Math.max(1, maxUsers);
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    /**
+     * Returns the subset of {@code externalIds} already stored.
+     */
+    public Set<String> findExisting(Long userId, Collection<String> externalIds) {
+        if (externalIds.isEmpty()) {
+            return Set.of();
+        }
+        checked.addAndGet(externalIds.size());
+        if (userId == null) {
+            verified.addAndGet(externalIds.size());
+            return new HashSet<>(transactionRepository.findExistingExternalIds(externalIds));
+        }
+
+        BloomFilter filter = filter(userId);
+        List<String> candidates = externalIds.stream()
+                .filter(id -> id != null && filter.mightContain(id))
+                .distinct()
+                .toList();
+        if (candidates.isEmpty()) {
+            return Set.of();
+        }
+        verified.addAndGet(candidates.size());
+        return new HashSet<>(transactionRepository.findExistingExternalIds(candidates));
+    }
+
+    /**
+     * Add ids just stored for the user. Has no effect when the user has no filter yet.
+     */
+    public void recordInserted(Long userId, Collection<String> externalIds) {
+        if (userId == null) {
+            return;
+        }
+        BloomFilter filter;
+        synchronized (this) {
+            filter = filters.get(userId);
+        }
+        if (filter == null) {
+            return;
+        }
+        externalIds.forEach(filter::add);
+        if (filter.isSaturated()) {
+            // Rebuilt at a larger size on next use
+            invalidate(userId);
+        }
+    }
+
+    public synchronized void invalidate(Long userId) {
+        filters.remove(userId);
+    }
+
+    public synchronized int cachedUsers() {
+        return filters.size();
+    }
+
+    // Share of checked ids that needed a database lookup
+    public double verifiedRatio() {
+        long total = checked.get();
+        return total == 0 ? 0 : (double) verified.get() / total;
+    }
+
+    private BloomFilter filter(Long userId) {
+        synchronized (this) {
+            BloomFilter cached = filters.get(userId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        // Build outside the lock; sized with headroom for the ids this and later syncs add
+        List<String> known = transactionRepository.findExternalIdsByUserId(userId);
+        BloomFilter filter = new BloomFilter(Math.max(1024, known.size() * 2), falsePositiveRate);
+        known.forEach(filter::add);
+        log.debug("Built external id filter for user {} from {} ids", userId, known.size());
+
+        synchronized (this) {
+            BloomFilter raced = filters.putIfAbsent(userId, filter);
+            Iterator<Map.Entry<Long, BloomFilter>> it = filters.entrySet().iterator();
+            while (filters.size() > maxUsers && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+            return raced != null ? raced : filter;
+        }
+    }
+}
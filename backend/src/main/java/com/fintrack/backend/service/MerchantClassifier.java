@@ -0,0 +1,138 @@
+package com.fintrack.backend.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Multinomial naive Bayes over character trigrams and whole words of the normalized
+ * merchant string. Small enough to train from the keyword map and users' rules
+ * at startup, updated one example at a time, and classifies in microseconds.
+ */
+public final class MerchantClassifier {
+
+    private static final double ALPHA = 0.5;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // category -> feature -> count
+    private final Map<String, Map<String, Integer>> featureCounts = new HashMap<>();
+    private final Map<String, Long> featureTotals = new HashMap<>();
+    private final Map<String, Long> documentCounts = new HashMap<>();
+    private final Map<String, Integer> vocabulary = new HashMap<>();
+    private long documents;
+
+    public void train(String merchant, String category) {
+        List<String> features = features(MerchantNormalizer.normalize(merchant));
+        if (features.isEmpty() || category == null || category.isBlank()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Map<String, Integer> counts = featureCounts.computeIfAbsent(category, c -> new HashMap<>());
+            for (String f : features) {
+                counts.merge(f, 1, Integer::sum);
+                vocabulary.merge(f, 1, Integer::sum);
+            }
+            featureTotals.merge(category, (long) features.size(), Long::sum);
+            documentCounts.merge(category, 1L, Long::sum);
+            documents++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the most likely category with its posterior probability, or null when the
+     * model has nothing to go on (untrained, or no known feature in the input).
+     */
+    public Prediction classify(String merchant) {
+        List<String> features = features(MerchantNormalizer.normalize(merchant));
+        if (features.isEmpty()) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            if (featureCounts.size() < 2) {
+                return null;
+            }
+            // Unknown features carry no evidence for any class, so they are ignored
+            List<String> known = new ArrayList<>(features.size());
+            for (String f : features) {
+                if (vocabulary.containsKey(f)) {
+                    known.add(f);
+                }
+            }
+            if (known.isEmpty()) {
+                return null;
+            }
+
+            int v = vocabulary.size();
+            String best = null;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            Map<String, Double> scores = new HashMap<>();
+            for (Map.Entry<String, Map<String, Integer>> entry : featureCounts.entrySet()) {
+                String category = entry.getKey();
+                Map<String, Integer> counts = entry.getValue();
+                double denominator = Math.log(featureTotals.get(category) + ALPHA * v);
+                double score = Math.log((double) documentCounts.get(category) / documents);
+                for (String f : known) {
+                    score += Math.log(counts.getOrDefault(f, 0) + ALPHA) - denominator;
+                }
+                scores.put(category, score);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = category;
+                }
+            }
+
+            // Softmax of log scores, relative to the best for numerical stability
+            double sum = 0;
+            for (double s : scores.values()) {
+                sum += Math.exp(s - bestScore);
+            }
+            return new Prediction(best, 1.0 / sum);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long documents() {
+        lock.readLock().lock();
+        try {
+            return documents;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int categories() {
+        lock.readLock().lock();
+        try {
+            return featureCounts.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> features(String normalized) {
+        List<String> features = new ArrayList<>();
+        if (normalized.isEmpty()) {
+            return features;
+        }
+        for (String word : normalized.split(" ")) {
+            features.add("w:" + word);
+        }
+        String padded = " " + normalized + " ";
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            features.add(padded.substring(i, i + 3));
+        }
+        return features;
+    }
+
+    public record Prediction(String category, double confidence) {
+    }
+}
@@ -0,0 +1,141 @@
+package com.fintrack.backend.service;
+
+import com.fintrack.backend.entity.MerchantCategoryMap;
+import com.fintrack.backend.entity.UserCategoryRule;
+import com.fintrack.backend.repository.MerchantCategoryMapRepository;
+import com.fintrack.backend.repository.UserCategoryRuleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local statistical tier between the keyword index and Gemini. Trained only from labels a
+ * person or Gemini chose: the SEED and AI_LEARNED keyword rows and users' own rules from
+ * manual re-categorization. Transaction categories are not used, since many of them were
+ * assigned by this classifier or by the bank's fallback and would feed its guesses back in.
+ * Only answers when its confidence clears {@code categorization.classifier.min-confidence}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MerchantClassifierService {
+
+    private final MerchantCategoryMapRepository merchantCategoryMapRepository;
+    private final UserCategoryRuleRepository userCategoryRuleRepository;
+
+    @Value("${categorization.classifier.min-confidence:0.9}")
+    private double minConfidence = 0.9;
+
+    @Value("${categorization.classifier.history-limit:50000}")
+    private int historyLimit = 50000;
+
+    private volatile MerchantClassifier classifier = new MerchantClassifier();
+
+    // Examples learned while a retrain reads the DB, replayed onto the new model before it goes live;
+    // null when no retrain is running. Guarded by modelLock, which also covers swapping the model.
+    private final Object modelLock = new Object();
+    private List<Example> learnedDuringRetrain;
+
+    private final AtomicLong confidentPredictions = new AtomicLong();
+    private final AtomicLong uncertainPredictions = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void trainOnStartup() {
+        CompletableFuture.runAsync(() -> {
+            try {
+                retrain();
+            } catch (Exception e) {
+                log.error("Merchant classifier training failed", e);
+            }
+        });
+    }
+
+    /**
+     * Train a fresh model from the DB and swap it in. Examples passed to {@link #learn} while
+     * this runs end up in the new model too.
+     */
+    public synchronized void retrain() {
+        long start = System.currentTimeMillis();
+        MerchantClassifier fresh = new MerchantClassifier();
+        synchronized (modelLock) {
+            learnedDuringRetrain = new ArrayList<>();
+        }
+        try {
+            for (MerchantCategoryMap m : merchantCategoryMapRepository.findAll()) {
+                if (!CategorizationCache.isNegative(m.getCategory())) {
+                    fresh.train(m.getKeyword(), m.getCategory());
+                }
+            }
+            for (UserCategoryRule rule : userCategoryRuleRepository.findAll(PageRequest.of(0, historyLimit))) {
+                if (!CategorizationCache.isNegative(rule.getCategory())) {
+                    fresh.train(rule.getKeyword(), rule.getCategory());
+                }
+            }
+
+            synchronized (modelLock) {
+                learnedDuringRetrain.forEach(e -> fresh.train(e.merchant(), e.category()));
+                classifier = fresh;
+            }
+        } finally {
+            synchronized (modelLock) {
+                learnedDuringRetrain = null;
+            }
+        }
+        log.info("Merchant classifier trained on {} examples across {} categories in {} ms",
+                fresh.documents(), fresh.categories(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Incrementally add one labelled example to the live model.
+     */
+    public void learn(String merchant, String category) {
+        if (CategorizationCache.isNegative(category)) {
+            return;
+        }
+        synchronized (modelLock) {
+            classifier.train(merchant, category);
+            if (learnedDuringRetrain != null) {
+                learnedDuringRetrain.add(new Example(merchant, category));
+            }
+        }
+    }
+
+    /**
+     * Returns the predicted category when the model is confident enough, otherwise null.
+     */
+    public String classify(String merchantName) {
+        MerchantClassifier.Prediction prediction = classifier.classify(merchantName);
+        if (prediction != null && prediction.confidence() >= minConfidence) {
+            confidentPredictions.incrementAndGet();
+            log.debug("Classifier placed '{}' in '{}' ({})", merchantName, prediction.category(),
+                    prediction.confidence());
+            return prediction.category();
+        }
+        uncertainPredictions.incrementAndGet();
+        return null;
+    }
+
+    public long trainedExamples() {
+        return classifier.documents();
+    }
+
+    public long confidentPredictions() {
+        return confidentPredictions.get();
+    }
+
+    public long uncertainPredictions() {
+        return uncertainPredictions.get();
+    }
+
+    private record Example(String merchant, String category) {
+    }
+}
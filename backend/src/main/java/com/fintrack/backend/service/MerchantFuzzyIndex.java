@@ -0,0 +1,207 @@
+package com.fintrack.backend.service;
+
+import com.fintrack.backend.entity.MerchantCategoryMap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable trigram inverted index over the merchant keyword map, for descriptions with
+ * typos or truncations ("STARBUKS", "MCDONALD S") that the exact {@link MerchantMatcher}
+ * misses.
+ *
+ * Every run of up to {@link #MAX_WINDOW_WORDS} consecutive words of the normalized
+ * description is looked up: keywords sharing enough trigrams with it are candidates, and
+ * candidates are verified by edit distance (adjacent transpositions count as one edit).
+ * The best similarity wins, then the longer keyword. Keywords shorter than
+ * {@link #MIN_LENGTH} characters are left to exact matching only: at that length a single
+ * edit already turns one ordinary word into another ("water" / "later", "shell" / "spell").
+ */
+public final class MerchantFuzzyIndex {
+
+    static final int MIN_LENGTH = 6;
+    static final int MAX_WINDOW_WORDS = 4;
+
+    // Candidates must share at least this Dice coefficient of trigrams before edit distance runs
+    private static final double MIN_TRIGRAM_DICE = 0.4;
+
+    private static final MerchantFuzzyIndex EMPTY = new MerchantFuzzyIndex(
+            new String[0], new String[0], new int[0], Map.of());
+
+    private final String[] keywords;
+    private final String[] categories;
+    private final int[] trigramCounts;
+    private final Map<String, int[]> postings;
+
+    private MerchantFuzzyIndex(String[] keywords, String[] categories, int[] trigramCounts,
+            Map<String, int[]> postings) {
+        this.keywords = keywords;
+        this.categories = categories;
+        this.trigramCounts = trigramCounts;
+        this.postings = postings;
+    }
+
+    public static MerchantFuzzyIndex empty() {
+        return EMPTY;
+    }
+
+    public static MerchantFuzzyIndex build(Collection<MerchantCategoryMap> mappings) {
+        if (mappings == null || mappings.isEmpty()) {
+            return EMPTY;
+        }
+
+        List<String> keywords = new ArrayList<>();
+        List<String> categories = new ArrayList<>();
+        for (Map.Entry<String, String> entry : MerchantMatcher.uniqueKeywords(mappings).entrySet()) {
+            if (entry.getKey().length() >= MIN_LENGTH) {
+                keywords.add(entry.getKey());
+                categories.add(entry.getValue());
+            }
+        }
+        if (keywords.isEmpty()) {
+            return EMPTY;
+        }
+
+        int[] trigramCounts = new int[keywords.size()];
+        Map<String, List<Integer>> lists = new HashMap<>();
+        for (int k = 0; k < keywords.size(); k++) {
+            Set<String> trigrams = trigrams(keywords.get(k));
+            trigramCounts[k] = trigrams.size();
+            for (String t : trigrams) {
+                lists.computeIfAbsent(t, x -> new ArrayList<>()).add(k);
+            }
+        }
+        Map<String, int[]> postings = new HashMap<>(lists.size() * 2);
+        lists.forEach((t, ids) -> postings.put(t, ids.stream().mapToInt(Integer::intValue).toArray()));
+
+        return new MerchantFuzzyIndex(keywords.toArray(new String[0]), categories.toArray(new String[0]),
+                trigramCounts, postings);
+    }
+
+    /**
+     * Returns the closest keyword with similarity (1 - edits / longer length) of at least
+     * {@code minSimilarity}, or null when nothing is close enough.
+     */
+    public Match find(String text, double minSimilarity) {
+        if (text == null || text.isEmpty() || keywords.length == 0) {
+            return null;
+        }
+        String normalized = MerchantNormalizer.normalize(text);
+        if (normalized.length() < MIN_LENGTH) {
+            return null;
+        }
+        String[] words = normalized.split(" ");
+
+        int best = -1;
+        double bestSimilarity = 0;
+        Map<Integer, Integer> overlap = new HashMap<>();
+        for (int start = 0; start < words.length; start++) {
+            StringBuilder window = new StringBuilder();
+            for (int end = start; end < words.length && end - start < MAX_WINDOW_WORDS; end++) {
+                if (end > start) {
+                    window.append(' ');
+                }
+                window.append(words[end]);
+                String query = window.toString();
+                if (query.length() < MIN_LENGTH) {
+                    continue;
+                }
+
+                Set<String> queryTrigrams = trigrams(query);
+                overlap.clear();
+                for (String t : queryTrigrams) {
+                    int[] ids = postings.get(t);
+                    if (ids != null) {
+                        for (int id : ids) {
+                            overlap.merge(id, 1, Integer::sum);
+                        }
+                    }
+                }
+
+                for (Map.Entry<Integer, Integer> candidate : overlap.entrySet()) {
+                    int k = candidate.getKey();
+                    double dice = 2.0 * candidate.getValue() / (queryTrigrams.size() + trigramCounts[k]);
+                    if (dice < MIN_TRIGRAM_DICE) {
+                        continue;
+                    }
+                    String keyword = keywords[k];
+                    int longer = Math.max(keyword.length(), query.length());
+                    int maxEdits = (int) Math.floor((1 - minSimilarity) * longer);
+                    int edits = distance(query, keyword, maxEdits);
+                    if (edits > maxEdits) {
+                        continue;
+                    }
+                    double similarity = 1 - (double) edits / longer;
+                    if (similarity > bestSimilarity
+                            || (similarity == bestSimilarity && keyword.length() > keywords[best].length())) {
+                        best = k;
+                        bestSimilarity = similarity;
+                    }
+                }
+            }
+        }
+        return best >= 0 ? new Match(keywords[best], categories[best], bestSimilarity) : null;
+    }
+
+    public int size() {
+        return keywords.length;
+    }
+
+    static Set<String> trigrams(String s) {
+        String padded = " " + s + " ";
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    /**
+     * Optimal string alignment distance, giving up once it is certain to exceed {@code limit}.
+     */
+    static int distance(String a, String b, int limit) {
+        if (Math.abs(a.length() - b.length()) > limit) {
+            return limit + 1;
+        }
+        int[] prev2 = new int[b.length() + 1];
+        int[] prev = new int[b.length() + 1];
+        int[] cur = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            prev[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            cur[0] = i;
+            int rowMin = cur[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int d = Math.min(Math.min(prev[j] + 1, cur[j - 1] + 1), prev[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d = Math.min(d, prev2[j - 2] + 1);
+                }
+                cur[j] = d;
+                rowMin = Math.min(rowMin, d);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] tmp = prev2;
+            prev2 = prev;
+            prev = cur;
+            cur = tmp;
+        }
+        return prev[b.length()];
+    }
+
+    @Override
+    public String toString() {
+        return "MerchantFuzzyIndex{keywords=" + keywords.length + ", trigrams=" + postings.size() + "}";
+    }
+
+    public record Match(String keyword, String category, double similarity) {
+    }
+}
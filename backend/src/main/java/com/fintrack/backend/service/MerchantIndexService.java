@@ -0,0 +1,136 @@
+package com.fintrack.backend.service;
+
+import com.fintrack.backend.entity.MerchantCategoryMap;
+import com.fintrack.backend.repository.MerchantCategoryMapRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the published merchant keyword index (exact automaton plus fuzzy trigram index). Rebuilds happen off the request path
+ * and are swapped in atomically, so readers never block or see a half-built automaton.
+ * Other nodes pick up mapping changes by polling a cheap table fingerprint.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MerchantIndexService {
+
+    private final MerchantCategoryMapRepository merchantCategoryMapRepository;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final AtomicLong versionCounter = new AtomicLong();
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "merchant-index-rebuild");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public MerchantMatcher matcher() {
+        Snapshot current = snapshot.get();
+        return current != null ? current.matcher() : rebuildNow().matcher();
+    }
+
+    public Snapshot snapshot() {
+        Snapshot current = snapshot.get();
+        return current != null ? current : rebuildNow();
+    }
+
+    /**
+     * Schedule a background rebuild. Called inside a transaction, it waits for the commit
+     * so the rebuild sees the new rows. Bursts of requests collapse into one rebuild.
+     */
+    public void requestRebuild() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    scheduleRebuild();
+                }
+            });
+        } else {
+            scheduleRebuild();
+        }
+    }
+
+    /**
+     * Build and publish a new snapshot on the calling thread.
+     */
+    public synchronized Snapshot rebuildNow() {
+        String fingerprint = fingerprint();
+        List<MerchantCategoryMap> mappings = merchantCategoryMapRepository.findAll();
+        MerchantMatcher matcher = MerchantMatcher.build(mappings);
+        MerchantFuzzyIndex fuzzy = MerchantFuzzyIndex.build(mappings);
+        Snapshot rebuilt = new Snapshot(versionCounter.incrementAndGet(), fingerprint, matcher, fuzzy,
+                LocalDateTime.now());
+        snapshot.set(rebuilt);
+        log.info("Published merchant index v{}: {}, {}", rebuilt.version(), matcher, fuzzy);
+        return rebuilt;
+    }
+
+    /**
+     * Detect mapping changes made by other nodes (or directly in the DB) and reload.
+     */
+    @Scheduled(fixedDelayString = "${categorization.index.poll-interval-ms:30000}",
+            initialDelayString = "${categorization.index.poll-interval-ms:30000}")
+    public void pollForChanges() {
+        Snapshot current = snapshot.get();
+        if (current == null) {
+            return;
+        }
+        try {
+            String fingerprint = fingerprint();
+            if (!fingerprint.equals(current.fingerprint())) {
+                log.info("Merchant map changed in DB ({} → {}), rebuilding index", current.fingerprint(), fingerprint);
+                scheduleRebuild();
+            }
+        } catch (Exception e) {
+            log.warn("Merchant index poll failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    private void scheduleRebuild() {
+        if (!rebuildPending.compareAndSet(false, true)) {
+            return;
+        }
+        rebuildExecutor.execute(() -> {
+            rebuildPending.set(false);
+            try {
+                rebuildNow();
+            } catch (Exception e) {
+                log.error("Merchant index rebuild failed, keeping v{}", versionOf(snapshot.get()), e);
+            }
+        });
+    }
+
+    // Row count plus highest id changes on every insert and delete the app performs
+    private String fingerprint() {
+        return merchantCategoryMapRepository.count() + ":" + merchantCategoryMapRepository.findMaxId();
+    }
+
+    private static long versionOf(Snapshot s) {
+        return s != null ? s.version() : 0;
+    }
+
+    public record Snapshot(long version, String fingerprint, MerchantMatcher matcher, MerchantFuzzyIndex fuzzy,
+            LocalDateTime builtAt) {
+    }
+}
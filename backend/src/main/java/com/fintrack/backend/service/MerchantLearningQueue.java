@@ -0,0 +1,146 @@
+package com.fintrack.backend.service;
+
+import com.fintrack.backend.entity.MerchantCategoryMap;
+import com.fintrack.backend.repository.MerchantCategoryMapRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind buffer for self-learned merchant mappings. Categorization only enqueues;
+ * a scheduled writer drains the queue, drops duplicates and keywords already stored,
+ * inserts the rest in one batch and asks for a single index rebuild per flush. Stored
+ * mappings are also fed to the local classifier.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MerchantLearningQueue {
+
+    private static final int CAPACITY = 10_000;
+
+    private final MerchantCategoryMapRepository merchantCategoryMapRepository;
+    private final MerchantIndexService merchantIndexService;
+    private final MerchantClassifierService merchantClassifierService;
+
+    @Value("${categorization.learning.batch-size:200}")
+    private int batchSize = 200;
+
+    private final LinkedBlockingQueue<MerchantCategoryMap> queue = new LinkedBlockingQueue<>(CAPACITY);
+    private final AtomicLong learned = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * Queue a learned keyword. Never blocks; when the buffer is full the mapping is dropped
+     * and will simply be learned again on a later miss.
+     */
+    public void enqueue(String keyword, String category) {
+        MerchantCategoryMap mapping = MerchantCategoryMap.builder()
+                .keyword(keyword)
+                .category(category)
+                .source(MerchantCategoryMap.Source.AI_LEARNED)
+                .createdAt(LocalDateTime.now())
+                .build();
+        if (!queue.offer(mapping)) {
+            dropped.incrementAndGet();
+            log.warn("Learning queue full, dropped mapping '{}' → '{}'", keyword, category);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${categorization.learning.flush-interval-ms:5000}")
+    public void scheduledFlush() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Learning queue flush failed", e);
+        }
+    }
+
+    /**
+     * Drain and persist everything queued so far. Returns the number of new mappings stored.
+     */
+    public synchronized int flush() {
+        int stored = 0;
+        List<MerchantCategoryMap> drained = new ArrayList<>();
+        while (queue.drainTo(drained, Math.max(1, batchSize)) > 0) {
+            List<MerchantCategoryMap> saved = persist(drained);
+            saved.forEach(m -> merchantClassifierService.learn(m.getKeyword(), m.getCategory()));
+            stored += saved.size();
+            drained.clear();
+        }
+        if (stored > 0) {
+            learned.addAndGet(stored);
+            merchantIndexService.requestRebuild();
+            log.info("Flushed {} self-learned merchant mappings", stored);
+        }
+        return stored;
+    }
+
+    public int depth() {
+        return queue.size();
+    }
+
+    public long learnedCount() {
+        return learned.get();
+    }
+
+    public long droppedCount() {
+        return dropped.get();
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        scheduledFlush();
+    }
+
+    private List<MerchantCategoryMap> persist(List<MerchantCategoryMap> batch) {
+        // First mapping per keyword wins within the batch
+        Map<String, MerchantCategoryMap> unique = new LinkedHashMap<>();
+        for (MerchantCategoryMap m : batch) {
+            unique.putIfAbsent(m.getKeyword(), m);
+        }
+
+        Set<String> existing = merchantCategoryMapRepository.findByKeywordIn(unique.keySet()).stream()
+                .map(MerchantCategoryMap::getKeyword)
+                .collect(Collectors.toSet());
+        List<MerchantCategoryMap> fresh = unique.values().stream()
+                .filter(m -> !existing.contains(m.getKeyword()))
+                .collect(Collectors.toList());
+        if (fresh.isEmpty()) {
+            return fresh;
+        }
+
+        try {
+            merchantCategoryMapRepository.saveAll(fresh);
+            return fresh;
+        } catch (DataIntegrityViolationException e) {
+            // Another node learned some of these concurrently; fall back to row-by-row
+            log.debug("Batch insert of learned mappings conflicted, retrying individually");
+            List<MerchantCategoryMap> stored = new ArrayList<>();
+            for (MerchantCategoryMap m : fresh) {
+                try {
+                    m.setId(null);
+                    merchantCategoryMapRepository.save(m);
+                    stored.add(m);
+                } catch (DataIntegrityViolationException dup) {
+                    log.debug("Mapping '{}' already learned elsewhere", m.getKeyword());
+                }
+            }
+            return stored;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.fintrack.backend.service;
+
+import com.fintrack.backend.entity.MerchantCategoryMap;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable Aho-Corasick automaton over the merchant keyword map.
+ * Matches a description against every keyword in one pass, with no DB round-trips.
+ * Keywords and descriptions both go through {@link MerchantNormalizer} first.
+ *
+ * Priority when several keywords occur: the longest keyword wins, then the one that
+ * starts earliest in the description. Duplicate keywords (case-insensitive) keep the
+ * SEED mapping over an AI_LEARNED one, then the lowest id. Keywords that normalize
+ * to nothing are skipped.
+ */
+public final class MerchantMatcher {
+
+    private static final MerchantMatcher EMPTY = new MerchantMatcher(
+            new char[][] { new char[0] }, new int[][] { new int[0] }, new int[] { 0 }, new int[] { -1 },
+            new String[0], new String[0]);
+
+    // Per-node sorted edge labels and their targets (binary searched)
+    private final char[][] labels;
+    private final int[][] targets;
+    private final int[] fail;
+    // Longest keyword ending at each node (own or via suffix links), -1 if none
+    private final int[] output;
+    private final String[] keywords;
+    private final String[] categories;
+
+    private MerchantMatcher(char[][] labels, int[][] targets, int[] fail, int[] output,
+            String[] keywords, String[] categories) {
+        this.labels = labels;
+        this.targets = targets;
+        this.fail = fail;
+        this.output = output;
+        this.keywords = keywords;
+        this.categories = categories;
+    }
+
+    public static MerchantMatcher empty() {
+        return EMPTY;
+    }
+
+    public static MerchantMatcher build(Collection<MerchantCategoryMap> mappings) {
+        if (mappings == null || mappings.isEmpty()) {
+            return EMPTY;
+        }
+
+        Map<String, String> unique = uniqueKeywords(mappings);
+        if (unique.isEmpty()) {
+            return EMPTY;
+        }
+
+        // Phase 1: trie
+        List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        List<Integer> terminal = new ArrayList<>();
+        children.add(new TreeMap<>());
+        terminal.add(-1);
+
+        String[] keywords = new String[unique.size()];
+        String[] categories = new String[unique.size()];
+        int k = 0;
+        for (Map.Entry<String, String> entry : unique.entrySet()) {
+            keywords[k] = entry.getKey();
+            categories[k] = entry.getValue();
+            int node = 0;
+            for (char c : entry.getKey().toCharArray()) {
+                Integer next = children.get(node).get(c);
+                if (next == null) {
+                    next = children.size();
+                    children.add(new TreeMap<>());
+                    terminal.add(-1);
+                    children.get(node).put(c, next);
+                }
+                node = next;
+            }
+            terminal.set(node, k);
+            k++;
+        }
+
+        int size = children.size();
+        char[][] labels = new char[size][];
+        int[][] targets = new int[size][];
+        for (int n = 0; n < size; n++) {
+            TreeMap<Character, Integer> edges = children.get(n);
+            labels[n] = new char[edges.size()];
+            targets[n] = new int[edges.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                labels[n][i] = edge.getKey();
+                targets[n][i] = edge.getValue();
+                i++;
+            }
+        }
+
+        // Phase 2: failure links and output links, breadth-first
+        int[] fail = new int[size];
+        int[] output = new int[size];
+        Arrays.fill(output, -1);
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : targets[0]) {
+            fail[child] = 0;
+            output[child] = terminal.get(child);
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int i = 0; i < labels[node].length; i++) {
+                char c = labels[node][i];
+                int child = targets[node][i];
+                int f = fail[node];
+                int next;
+                while ((next = step(labels, targets, f, c)) < 0 && f != 0) {
+                    f = fail[f];
+                }
+                fail[child] = Math.max(next, 0);
+                // A node's own keyword is always longer than anything reachable by its suffix link
+                output[child] = terminal.get(child) >= 0 ? terminal.get(child) : output[fail[child]];
+                queue.add(child);
+            }
+        }
+
+        return new MerchantMatcher(labels, targets, fail, output, keywords, categories);
+    }
+
+    /**
+     * Normalized keyword to category, de-duplicated deterministically: SEED before
+     * AI_LEARNED, then oldest id. Shared with {@link MerchantFuzzyIndex}.
+     */
+    static Map<String, String> uniqueKeywords(Collection<MerchantCategoryMap> mappings) {
+        List<MerchantCategoryMap> ordered = new ArrayList<>(mappings);
+        ordered.sort(Comparator
+                .comparing((MerchantCategoryMap m) -> m.getSource() == MerchantCategoryMap.Source.SEED ? 0 : 1)
+                .thenComparing(MerchantCategoryMap::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+
+        Map<String, String> unique = new LinkedHashMap<>();
+        for (MerchantCategoryMap m : ordered) {
+            if (m.getKeyword() == null || m.getCategory() == null) {
+                continue;
+            }
+            String keyword = MerchantNormalizer.normalize(m.getKeyword());
+            if (!keyword.isEmpty()) {
+                unique.putIfAbsent(keyword, m.getCategory());
+            }
+        }
+        return unique;
+    }
+
+    /**
+     * Returns the category of the highest-priority keyword in the text, or null when none occurs.
+     */
+    public String match(String text) {
+        Match best = findBest(text);
+        return best != null ? best.category() : null;
+    }
+
+    public Match findBest(String text) {
+        if (text == null || text.isEmpty() || keywords.length == 0) {
+            return null;
+        }
+        String lower = MerchantNormalizer.normalize(text);
+
+        int state = 0;
+        int best = -1;
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            int next;
+            while ((next = step(labels, targets, state, c)) < 0 && state != 0) {
+                state = fail[state];
+            }
+            state = Math.max(next, 0);
+
+            int hit = output[state];
+            // Strictly longer only: on equal length the earlier occurrence was seen first
+            if (hit >= 0 && (best < 0 || keywords[hit].length() > keywords[best].length())) {
+                best = hit;
+            }
+        }
+        return best >= 0 ? new Match(keywords[best], categories[best]) : null;
+    }
+
+    public int size() {
+        return keywords.length;
+    }
+
+    private static int step(char[][] labels, int[][] targets, int node, char c) {
+        int idx = Arrays.binarySearch(labels[node], c);
+        return idx >= 0 ? targets[node][idx] : -1;
+    }
+
+    @Override
+    public String toString() {
+        return "MerchantMatcher{keywords=" + keywords.length + ", nodes=" + labels.length + "}";
+    }
+
+    public record Match(String keyword, String category) {
+    }
+}
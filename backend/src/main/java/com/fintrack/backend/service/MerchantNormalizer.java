@@ -0,0 +1,79 @@
+package com.fintrack.backend.service;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Reduces a raw bank description to the stable part that identifies the merchant.
+ * Used for keyword matching, the AI answer cache key and self-learned keywords, so
+ * "KASPI.KZ 4400-43** 12.03.2024 ALMATY KZ" and "Kaspi.kz *5521 ALMATY" both become "kaspi".
+ *
+ * Steps: lower-case, drop payment-processor prefixes ("SQ *", "PAYPAL *"), drop apostrophes,
+ * split on anything that is not a letter or digit, then discard tokens that carry digits
+ * (card numbers, dates, terminal and reference ids), card masks, single letters,
+ * generic banking words, and city/country suffixes.
+ */
+public final class MerchantNormalizer {
+
+    private static final Pattern PROCESSOR_PREFIX = Pattern.compile(
+            "^\\s*(sq|sqr|tst|pp|paypal|sumup|zettle|izettle|sp|yoomoney|cloudpayments)\\s*\\*\\s*");
+
+    private static final Pattern APOSTROPHES = Pattern.compile("['’`]");
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Pattern CARD_MASK = Pattern.compile("x{2,}");
+
+    private static final Set<String> NOISE_TOKENS = Set.of(
+            "pos", "purchase", "payment", "pmt", "card", "visa", "mastercard", "maestro", "mc", "debit", "credit",
+            "contactless", "tid", "term", "terminal", "ref", "auth", "txn", "trx", "id", "no", "nr", "www", "com",
+            "net", "org", "ltd", "llc", "llp", "inc", "too", "ip", "ao", "oao", "ooo", "the",
+            "покупка", "оплата", "платеж", "платёж", "карта", "терминал", "тоо", "ип", "ао", "ооо");
+
+    private static final Set<String> LOCATION_TOKENS = Set.of(
+            "kz", "kaz", "ru", "rus", "us", "usa", "gb", "gbr", "de", "nl", "ie", "kazakhstan",
+            "almaty", "astana", "nur", "sultan", "shymkent", "karaganda", "aktobe", "atyrau", "aktau", "pavlodar",
+            "taraz", "kostanay", "oskemen", "semey", "moscow", "london", "dublin", "amsterdam",
+            "алматы", "астана", "шымкент", "караганда", "казахстан", "москва");
+
+    private MerchantNormalizer() {
+    }
+
+    /**
+     * Returns the normalized merchant string, or an empty string when nothing meaningful remains.
+     */
+    public static String normalize(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return "";
+        }
+        String text = raw.toLowerCase(Locale.ROOT);
+        text = PROCESSOR_PREFIX.matcher(text).replaceFirst("");
+        text = APOSTROPHES.matcher(text).replaceAll("");
+
+        StringBuilder out = new StringBuilder(text.length());
+        for (String token : SEPARATORS.split(text)) {
+            if (isNoise(token)) {
+                continue;
+            }
+            if (out.length() > 0) {
+                out.append(' ');
+            }
+            out.append(token);
+        }
+        return out.toString();
+    }
+
+    private static boolean isNoise(String token) {
+        if (token.length() < 2 || NOISE_TOKENS.contains(token) || LOCATION_TOKENS.contains(token)
+                || CARD_MASK.matcher(token).matches()) {
+            return true;
+        }
+        for (int i = 0; i < token.length(); i++) {
+            if (Character.isDigit(token.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,310 @@
+package com.fintrack.backend.service;
+
+import com.fintrack.backend.entity.RecategorizationJob;
+import com.fintrack.backend.exception.ResourceNotFoundException;
+import com.fintrack.backend.repository.RecategorizationJobRepository;
+import com.fintrack.backend.repository.TransactionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Re-applies the merchant keyword index to stored transactions after the map changes.
+ *
+ * Jobs walk the transactions table in id order (keyset chunks), classify each chunk in
+ * parallel against the in-memory index, and write changes back as one UPDATE per
+ * category per chunk. Progress is checkpointed after every chunk, so a job interrupted
+ * by a restart resumes from its last processed id. Re-running a chunk is harmless: the
+ * outcome only depends on the index.
+ *
+ * A node runs a job only after claiming it with a conditional UPDATE. The claim's
+ * timestamp is renewed with every checkpoint and keys all of the node's writes to the
+ * job, so a job whose checkpoints stop for {@code categorization.recategorize.lease-minutes}
+ * is taken over by exactly one node, and the old owner's late writes are ignored.
+ *
+ * Only rows the map could have categorized are touched: bank-synced rows, and rows that
+ * still carry the changed mapping's previous category. Manually entered and imported rows
+ * keep the category they were given. Only exact matches are applied (the owner's rules,
+ * then the keyword index), never fuzzy ones; transactions that no longer match anything
+ * keep their category rather than going back to the AI, except rows of a deleted mapping,
+ * which return to Uncategorized.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RecategorizationService {
+
+    private final RecategorizationJobRepository recategorizationJobRepository;
+    private final TransactionRepository transactionRepository;
+    private final MerchantIndexService merchantIndexService;
+    private final UserCategoryRuleService userCategoryRuleService;
+
+    @Value("${categorization.recategorize.chunk-size:500}")
+    private int chunkSize = 500;
+
+    @Value("${categorization.recategorize.parallelism:4}")
+    private int parallelism = 4;
+
+    @Value("${categorization.recategorize.max-rows-per-second:0}")
+    private int defaultMaxRowsPerSecond = 0;
+
+    @Value("${categorization.recategorize.lease-minutes:15}")
+    private long leaseMinutes = 15;
+
+    // Jobs run one after another; each fans out over its own worker pool
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "recategorization");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Create a job and start it once the surrounding transaction (if any) commits.
+     * A null or blank keyword rescans every transaction.
+     */
+    public RecategorizationJob submit(String keyword, Integer maxRowsPerSecond) {
+        return submit(keyword, null, false, maxRowsPerSecond);
+    }
+
+    /**
+     * Queue a job for a mapping that was replaced or deleted. Rows still carrying
+     * {@code previousCategory} are re-evaluated too, since the mapping produced them.
+     */
+    public RecategorizationJob submitMappingChange(String keyword, String previousCategory, boolean removed) {
+        return submit(keyword, previousCategory, removed, null);
+    }
+
+    private RecategorizationJob submit(String keyword, String previousCategory, boolean removed,
+            Integer maxRowsPerSecond) {
+        String normalized = keyword != null ? MerchantNormalizer.normalize(keyword) : "";
+        RecategorizationJob job = recategorizationJobRepository.save(RecategorizationJob.builder()
+                .keyword(normalized.isEmpty() ? null : normalized)
+                .previousCategory(previousCategory)
+                .keywordRemoved(removed && !normalized.isEmpty())
+                .maxRowsPerSecond(maxRowsPerSecond)
+                .build());
+        log.info("Queued recategorization job #{} (keyword={})", job.getId(), job.getKeyword());
+
+        Long jobId = job.getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    start(jobId);
+                }
+            });
+        } else {
+            start(jobId);
+        }
+        return job;
+    }
+
+    public RecategorizationJob getJob(Long id) {
+        return recategorizationJobRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Recategorization job not found"));
+    }
+
+    public List<RecategorizationJob> recentJobs() {
+        return recategorizationJobRepository.findTop20ByOrderByIdDesc();
+    }
+
+    /**
+     * Change the rate limit of a queued or running job; picked up at the next chunk.
+     */
+    public RecategorizationJob throttle(Long id, Integer maxRowsPerSecond) {
+        if (recategorizationJobRepository.updateMaxRowsPerSecond(id, maxRowsPerSecond) == 0) {
+            throw new ResourceNotFoundException("Recategorization job not found");
+        }
+        return getJob(id);
+    }
+
+    /**
+     * Cancel a queued or running job; the running node stops at its next checkpoint.
+     */
+    public RecategorizationJob cancel(Long id) {
+        recategorizationJobRepository.cancel(id, RecategorizationJob.Status.CANCELLED, LocalDateTime.now());
+        return getJob(id);
+    }
+
+    @Scheduled(fixedDelayString = "${categorization.recategorize.reaper-interval-ms:60000}")
+    public void resumeInterruptedJobs() {
+        try {
+            for (RecategorizationJob job : recategorizationJobRepository.findResumable(
+                    LocalDateTime.now().minusMinutes(leaseMinutes))) {
+                log.info("Resuming recategorization job #{} after id {}", job.getId(), job.getLastProcessedId());
+                start(job.getId());
+            }
+        } catch (Exception e) {
+            log.error("Resuming interrupted recategorization jobs failed", e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobExecutor.shutdownNow();
+    }
+
+    private void start(Long jobId) {
+        jobExecutor.execute(() -> {
+            try {
+                run(jobId);
+            } catch (Exception e) {
+                log.error("Recategorization job #{} could not be started", jobId, e);
+            }
+        });
+    }
+
+    /**
+     * Claim a job and execute it on the calling thread, from its checkpoint to the end of
+     * the table. Returns without doing anything when another node holds the job or it has
+     * already finished.
+     */
+    void run(Long jobId) {
+        LocalDateTime lease = now();
+        if (recategorizationJobRepository.claim(jobId, RecategorizationJob.Status.RUNNING, lease,
+                lease.minusMinutes(leaseMinutes)) == 0) {
+            return;
+        }
+        RecategorizationJob job = getJob(jobId);
+        job.setHeartbeatAt(lease);
+        try {
+            process(job, lease);
+        } catch (Exception e) {
+            log.error("Recategorization job #{} failed", jobId, e);
+            String message = String.valueOf(e.getMessage());
+            recategorizationJobRepository.finish(jobId, RecategorizationJob.Status.FAILED,
+                    message.length() > 255 ? message.substring(0, 255) : message, job.getHeartbeatAt(), now());
+        }
+    }
+
+    private void process(RecategorizationJob job, LocalDateTime lease) throws Exception {
+        Long jobId = job.getId();
+        // The mapping change that queued this job must be visible to the matcher
+        MerchantMatcher matcher = merchantIndexService.rebuildNow().matcher();
+
+        String keyword = job.getKeyword();
+        String previousCategory = job.getPreviousCategory();
+        String orphanCategory = Boolean.TRUE.equals(job.getKeywordRemoved()) ? previousCategory : null;
+        if (job.getTotal() == null) {
+            recategorizationJobRepository.initTotal(jobId,
+                    transactionRepository.countRecategorizable(previousCategory));
+        }
+
+        long lastId = job.getLastProcessedId();
+        long scanned = job.getScanned();
+        long updated = job.getUpdated();
+        ForkJoinPool workers = new ForkJoinPool(Math.max(1, parallelism));
+        try {
+            while (true) {
+                long chunkStart = System.nanoTime();
+                List<TransactionRepository.CategoryRow> rows = transactionRepository.findRecategorizableRowsAfter(
+                        lastId, previousCategory, PageRequest.of(0, chunkSize));
+                if (rows.isEmpty()) {
+                    break;
+                }
+
+                // Owners' rules for this chunk only, kept out of the shared per-user cache
+                Map<Long, MerchantMatcher> ownerRules = userCategoryRuleService.loadUncached(rows.stream()
+                        .filter(row -> mentions(row, keyword))
+                        .map(TransactionRepository.CategoryRow::getUserId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()));
+                Map<String, List<Long>> changes = workers.submit(() -> rows.parallelStream()
+                        .filter(row -> mentions(row, keyword))
+                        .map(row -> reclassify(row, ownerRules.get(row.getUserId()), matcher, orphanCategory))
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.groupingBy(Change::category,
+                                Collectors.mapping(Change::id, Collectors.toList()))))
+                        .get();
+                for (Map.Entry<String, List<Long>> change : changes.entrySet()) {
+                    updated += transactionRepository.updateCategory(change.getValue(), change.getKey());
+                }
+
+                lastId = rows.get(rows.size() - 1).getId();
+                scanned += rows.size();
+                LocalDateTime renewed = now();
+                if (recategorizationJobRepository.saveProgress(jobId, lastId, scanned, updated, lease,
+                        renewed) == 0) {
+                    log.info("Recategorization job #{} stopped after {} rows: cancelled or taken over",
+                            jobId, scanned);
+                    return;
+                }
+                lease = renewed;
+                // Kept on the entity too, so a failure is recorded under the current lease
+                job.setHeartbeatAt(lease);
+
+                // Re-read for throttle changes made while this chunk ran
+                Integer maxRowsPerSecond = recategorizationJobRepository.findById(jobId)
+                        .map(RecategorizationJob::getMaxRowsPerSecond).orElse(null);
+                pace(rows.size(), chunkStart, maxRowsPerSecond);
+            }
+        } finally {
+            workers.shutdown();
+        }
+
+        if (recategorizationJobRepository.finish(jobId, RecategorizationJob.Status.COMPLETED, null, lease,
+                now()) == 0) {
+            log.info("Recategorization job #{} was cancelled or taken over before it completed", jobId);
+            return;
+        }
+        log.info("Recategorization job #{} done: {} scanned, {} updated", jobId, scanned, updated);
+    }
+
+    private Change reclassify(TransactionRepository.CategoryRow row, MerchantMatcher ownerRules,
+            MerchantMatcher matcher, String orphanCategory) {
+        // A user's own rule always wins over the global map
+        String category = ownerRules != null ? ownerRules.match(row.getDescription()) : null;
+        if (category == null) {
+            category = matcher.match(row.getDescription());
+        }
+        if (category == null && orphanCategory != null && orphanCategory.equals(row.getCategory())) {
+            // Its mapping was deleted and nothing else claims it
+            category = "Uncategorized";
+        }
+        return category != null && !category.equals(row.getCategory()) ? new Change(row.getId(), category) : null;
+    }
+
+    // Leases are compared for equality, so keep them at a precision every database stores
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    private void pace(int rows, long chunkStartNanos, Integer jobLimit) throws InterruptedException {
+        int limit = jobLimit != null ? jobLimit : defaultMaxRowsPerSecond;
+        if (limit <= 0) {
+            return;
+        }
+        long minMillis = rows * 1000L / limit;
+        long elapsedMillis = (System.nanoTime() - chunkStartNanos) / 1_000_000;
+        if (minMillis > elapsedMillis) {
+            Thread.sleep(minMillis - elapsedMillis);
+        }
+    }
+
+    // Same test the matcher applies: the keyword occurs in the normalized description
+    private static boolean mentions(TransactionRepository.CategoryRow row, String keyword) {
+        if (row.getDescription() == null) {
+            return false;
+        }
+        return keyword == null || MerchantNormalizer.normalize(row.getDescription()).contains(keyword);
+    }
+
+    private record Change(Long id, String category) {
+    }
+}
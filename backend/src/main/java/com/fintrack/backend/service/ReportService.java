@@ -1,39 +1,69 @@
 package com.fintrack.backend.service;
 
+import com.fintrack.backend.dto.ImportResultDto;
 import com.fintrack.backend.entity.Transaction;
 import com.fintrack.backend.entity.User;
+import com.fintrack.backend.repository.TransactionBulkRepository;
 import com.fintrack.backend.repository.TransactionRepository;
 import com.fintrack.backend.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVPrinter;
 import org.apache.commons.csv.CSVRecord;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.*;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ReportService {
 
+    private static final String[] EXPORT_COLUMNS = { "ID", "Date", "Description", "Amount", "Currency", "Category",
+            "Type" };
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
     private final TransactionRepository transactionRepository;
+    private final TransactionBulkRepository transactionBulkRepository;
     private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+
+    // Rows kept in memory while writing an xlsx export; the rest are flushed to disk
+    @Value("${reports.export.row-window:100}")
+    private int rowWindow = 100;
+
+    @Value("${reports.import.batch-size:500}")
+    private int importBatchSize = 500;
+
+    // Rejected rows listed in an import result; the rest are only counted
+    @Value("${reports.import.max-errors:100}")
+    private int maxImportErrors = 100;
 
     private User getAuthenticatedUser() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
@@ -46,45 +76,142 @@ public class ReportService {
     }
 
     public StreamingResponseBody exportTransactionsStreaming() {
-        User user = getAuthenticatedUser();
-        List<Transaction> transactions = transactionRepository.findByUser(user);
+        return exportTransactionsStreaming(ExportFormat.XLSX);
+    }
+
+    /**
+     * Stream the user's transactions in the given format, reading them off a read-only DB
+     * cursor. CSV and JSON Lines rows are written straight to the response as they are
+     * read; xlsx keeps a sliding window of rows in memory (see {@link #writeXlsx}).
+     */
+    public StreamingResponseBody exportTransactionsStreaming(ExportFormat format) {
+        Long userId = getAuthenticatedUser().getId();
+
+        return switch (format) {
+            case XLSX -> outputStream -> writeXlsx(userId, outputStream);
+            case CSV -> outputStream -> writeCsv(userId, outputStream);
+            case CSV_GZ -> outputStream -> {
+                GZIPOutputStream gzip = new GZIPOutputStream(outputStream, WRITE_BUFFER_SIZE);
+                writeCsv(userId, gzip);
+                gzip.finish();
+                outputStream.flush();
+            };
+            case JSONL -> outputStream -> writeJsonLines(userId, outputStream);
+        };
+    }
 
-        return outputStream -> {
-            try (Workbook workbook = new XSSFWorkbook()) {
+    /**
+     * Only the last {@code reports.export.row-window} rows are kept in memory; older ones are
+     * flushed to a compressed temp file that is zipped into the response at the end.
+     */
+    private void writeXlsx(Long userId, OutputStream outputStream) throws IOException {
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(Math.max(1, rowWindow))) {
+            workbook.setCompressTempFiles(true);
+            try {
                 Sheet sheet = workbook.createSheet("Transactions");
 
                 // Header
                 Row headerRow = sheet.createRow(0);
-                String[] columns = { "ID", "Date", "Description", "Amount", "Currency", "Category", "Type" };
-                for (int i = 0; i < columns.length; i++) {
-                    Cell cell = headerRow.createCell(i);
-                    cell.setCellValue(columns[i]);
+                for (int i = 0; i < EXPORT_COLUMNS.length; i++) {
+                    headerRow.createCell(i).setCellValue(EXPORT_COLUMNS[i]);
                 }
 
                 // Data rows
-                int rowIdx = 1;
-                for (Transaction transaction : transactions) {
-                    Row row = sheet.createRow(rowIdx++);
-                    row.createCell(0).setCellValue(transaction.getId() != null ? transaction.getId() : 0);
-                    row.createCell(1)
-                            .setCellValue(transaction.getDate() != null ? transaction.getDate().toString() : "");
-                    row.createCell(2)
-                            .setCellValue(transaction.getDescription() != null ? transaction.getDescription() : "");
-                    row.createCell(3).setCellValue(
-                            transaction.getAmount() != null ? transaction.getAmount().doubleValue() : 0.0);
-                    row.createCell(4)
-                            .setCellValue(transaction.getCurrency() != null ? transaction.getCurrency() : "KZT");
-                    row.createCell(5).setCellValue(transaction.getCategory() != null ? transaction.getCategory() : "");
-                    row.createCell(6).setCellValue(transaction.getType() != null ? transaction.getType().name() : "");
-                }
+                int[] rowIdx = { 1 };
+                forEachTransaction(userId, transaction -> writeRow(sheet.createRow(rowIdx[0]++), transaction));
 
                 workbook.write(outputStream);
                 outputStream.flush();
+            } finally {
+                workbook.dispose();
             }
-        };
+        }
     }
 
-    public void importTransactions(MultipartFile file) throws IOException {
+    // Same columns as the xlsx sheet, so an export can be imported again
+    private void writeCsv(Long userId, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8),
+                WRITE_BUFFER_SIZE);
+        CSVPrinter printer = new CSVPrinter(writer, CSVFormat.DEFAULT.builder().setHeader(EXPORT_COLUMNS).build());
+        forEachTransaction(userId, transaction -> {
+            printer.print(transaction.getId());
+            printer.print(transaction.getDate());
+            printer.print(transaction.getDescription());
+            printer.print(transaction.getAmount() != null ? transaction.getAmount().toPlainString() : null);
+            printer.print(transaction.getCurrency() != null ? transaction.getCurrency() : "KZT");
+            printer.print(transaction.getCategory());
+            printer.print(transaction.getType());
+            printer.println();
+        });
+        printer.flush();
+    }
+
+    private void writeJsonLines(Long userId, OutputStream outputStream) throws IOException {
+        JsonGenerator json = JSON_FACTORY.createGenerator(outputStream);
+        // One object per line instead of Jackson's default space between root values
+        json.setRootValueSeparator(null);
+        forEachTransaction(userId, transaction -> {
+            json.writeStartObject();
+            if (transaction.getId() != null) {
+                json.writeNumberField("id", transaction.getId());
+            }
+            json.writeStringField("date", transaction.getDate() != null ? transaction.getDate().toString() : null);
+            json.writeStringField("description", transaction.getDescription());
+            if (transaction.getAmount() != null) {
+                json.writeNumberField("amount", transaction.getAmount());
+            }
+            json.writeStringField("currency", transaction.getCurrency() != null ? transaction.getCurrency() : "KZT");
+            json.writeStringField("category", transaction.getCategory());
+            json.writeStringField("type", transaction.getType() != null ? transaction.getType().name() : null);
+            json.writeEndObject();
+            json.writeRaw('\n');
+        });
+        json.flush();
+    }
+
+    /**
+     * Walk the user's transactions through a DB cursor inside a read-only transaction,
+     * detaching each one once handled so the persistence context stays empty.
+     */
+    private void forEachTransaction(Long userId, RowWriter action) throws IOException {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        try {
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<Transaction> transactions = transactionRepository.streamByUserId(userId)) {
+                    transactions.forEach(transaction -> {
+                        try {
+                            action.write(transaction);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        entityManager.detach(transaction);
+                    });
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Usually the client went away mid-download
+            throw e.getCause();
+        }
+    }
+
+    private static void writeRow(Row row, Transaction transaction) {
+        row.createCell(0).setCellValue(transaction.getId() != null ? transaction.getId() : 0);
+        row.createCell(1).setCellValue(transaction.getDate() != null ? transaction.getDate().toString() : "");
+        row.createCell(2).setCellValue(transaction.getDescription() != null ? transaction.getDescription() : "");
+        row.createCell(3).setCellValue(transaction.getAmount() != null ? transaction.getAmount().doubleValue() : 0.0);
+        row.createCell(4).setCellValue(transaction.getCurrency() != null ? transaction.getCurrency() : "KZT");
+        row.createCell(5).setCellValue(transaction.getCategory() != null ? transaction.getCategory() : "");
+        row.createCell(6).setCellValue(transaction.getType() != null ? transaction.getType().name() : "");
+    }
+
+    /**
+     * Import a CSV or Excel file. Rows are written in chunks of
+     * {@code reports.import.batch-size} as they are read; rows that cannot be parsed are
+     * skipped and reported in the result. All chunks share one transaction, so a file that
+     * fails partway (a read error or a rejected INSERT) leaves nothing behind.
+     */
+    public ImportResultDto importTransactions(MultipartFile file) throws IOException {
         User user = getAuthenticatedUser();
 
         String filename = file.getOriginalFilename();
@@ -92,155 +219,156 @@ public class ReportService {
             throw new IllegalArgumentException("File has no name");
         }
 
-        if (filename.endsWith(".csv")) {
-            importCsv(file, user);
-        } else if (filename.endsWith(".xlsx") || filename.endsWith(".xls")) {
-            importExcel(file, user);
-        } else {
-            throw new IllegalArgumentException("Unsupported file format. Use .csv, .xls, or .xlsx");
+        TransactionImportWriter writer = new TransactionImportWriter(transactionBulkRepository, importBatchSize,
+                maxImportErrors);
+        ImportResultDto result;
+        try {
+            result = new TransactionTemplate(transactionManager).execute(status -> {
+                try {
+                    if (filename.endsWith(".csv")) {
+                        importCsv(file, user, writer);
+                    } else if (filename.endsWith(".xlsx")) {
+                        importXlsx(file, user, writer);
+                    } else if (filename.endsWith(".xls")) {
+                        importXls(file, user, writer);
+                    } else {
+                        throw new IllegalArgumentException("Unsupported file format. Use .csv, .xls, or .xlsx");
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return writer.finish();
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
+        log.info("Imported {} transactions from {} for user {} ({} rows rejected)", result.getImported(), filename,
+                user.getEmail(), result.getFailed());
+        return result;
     }
 
-    private void importCsv(MultipartFile file, User user) throws IOException {
+    private void importCsv(MultipartFile file, User user, TransactionImportWriter writer) throws IOException {
         try (BufferedReader fileReader = new BufferedReader(
                 new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8));
                 CSVParser csvParser = new CSVParser(fileReader,
                         CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).setIgnoreHeaderCase(true)
                                 .setTrim(true).build())) {
 
-            List<Transaction> transactions = new ArrayList<>();
-
-            for (CSVRecord csvRecord : csvParser.getRecords()) {
-                Transaction transaction = parseTransaction(csvRecord.toMap(), user);
-                if (transaction != null) {
-                    transactions.add(transaction);
+            // Records are parsed one at a time as the loop advances
+            for (CSVRecord csvRecord : csvParser) {
+                try {
+                    writer.add(parseTransaction(csvRecord.toMap(), user));
+                } catch (IllegalArgumentException e) {
+                    writer.reject(csvRecord.getRecordNumber(), e.getMessage());
                 }
             }
+        }
+    }
 
-            if (!transactions.isEmpty()) {
-                transactionRepository.saveAll(transactions);
-                log.info("Imported {} transactions from CSV for user {}", transactions.size(), user.getEmail());
-            }
+    /**
+     * Parse the upload with the SAX event reader from a temp file, so rows reach the
+     * writer as they are read instead of after the whole workbook is in memory.
+     */
+    private void importXlsx(MultipartFile file, User user, TransactionImportWriter writer) throws IOException {
+        Path upload = Files.createTempFile("fintrack-import-", ".xlsx");
+        try {
+            file.transferTo(upload);
+            XlsxSheetReader.read(upload.toFile(), EXPORT_COLUMNS.length,
+                    (rowNum, cells) -> addExcelRow(rowNum, cells, user, writer));
+        } finally {
+            Files.deleteIfExists(upload);
         }
     }
 
-    private void importExcel(MultipartFile file, User user) throws IOException {
+    // Legacy .xls has no SAX reader of its own here; these files are small enough for HSSF
+    private void importXls(MultipartFile file, User user, TransactionImportWriter writer) throws IOException {
         try (Workbook workbook = WorkbookFactory.create(file.getInputStream())) {
-            Sheet sheet = workbook.getSheetAt(0);
-            Iterator<Row> rows = sheet.iterator();
-
-            List<Transaction> transactions = new ArrayList<>();
-
-            int rowNumber = 0;
-            while (rows.hasNext()) {
-                Row currentRow = rows.next();
-                if (rowNumber == 0) { // Skip header
-                    rowNumber++;
-                    continue;
-                }
-
-                Transaction transaction = parseExcelRow(currentRow, user);
-                if (transaction != null) {
-                    transactions.add(transaction);
+            String[] cells = new String[EXPORT_COLUMNS.length];
+            for (Row currentRow : workbook.getSheetAt(0)) {
+                for (int col = 0; col < cells.length; col++) {
+                    cells[col] = getCellStringValue(currentRow.getCell(col));
                 }
+                addExcelRow(currentRow.getRowNum(), cells, user, writer);
             }
+        }
+    }
 
-            if (!transactions.isEmpty()) {
-                transactionRepository.saveAll(transactions);
-                log.info("Imported {} transactions from Excel for user {}", transactions.size(), user.getEmail());
+    /**
+     * Excel rows use the export's column order (ID, Date, Description, Amount, Currency,
+     * Category, Type) and are validated like CSV records with those headers.
+     */
+    private void addExcelRow(int rowNum, String[] cells, User user, TransactionImportWriter writer) {
+        if (rowNum == 0) { // Skip header
+            return;
+        }
+        java.util.Map<String, String> record = new java.util.HashMap<>();
+        for (int col = 1; col < EXPORT_COLUMNS.length; col++) {
+            if (cells[col] != null && !cells[col].isBlank()) {
+                record.put(EXPORT_COLUMNS[col], cells[col]);
             }
         }
+        if (record.isEmpty()) {
+            return;
+        }
+        try {
+            writer.add(parseTransaction(record, user));
+        } catch (IllegalArgumentException e) {
+            writer.reject(rowNum, e.getMessage());
+        }
     }
 
+    /**
+     * Build a transaction from a CSV record, or throw {@link IllegalArgumentException}
+     * saying what is wrong with it.
+     */
     private Transaction parseTransaction(java.util.Map<String, String> record, User user) {
-        try {
-            String amountStr = record.get("Amount");
-            String dateStr = record.get("Date");
-            String desc = record.get("Description");
+        String amountStr = record.get("Amount");
+        String dateStr = record.get("Date");
+        String desc = record.get("Description");
 
-            if (amountStr == null || amountStr.isBlank() || dateStr == null || dateStr.isBlank()) {
-                return null;
-            }
+        if (amountStr == null || amountStr.isBlank()) {
+            throw new IllegalArgumentException("Missing Amount");
+        }
+        if (dateStr == null || dateStr.isBlank()) {
+            throw new IllegalArgumentException("Missing Date");
+        }
 
-            BigDecimal amount = new BigDecimal(amountStr.trim());
-            LocalDateTime date = parseDate(dateStr.trim());
+        BigDecimal amount = parseAmount(amountStr);
+        LocalDateTime date = parseDate(dateStr.trim());
 
-            // Determine type: explicit column or infer from amount sign
-            Transaction.TransactionType type;
-            String typeStr = record.get("Type");
-            if (typeStr != null && !typeStr.isBlank()) {
-                type = Transaction.TransactionType.valueOf(typeStr.trim().toUpperCase());
-            } else {
-                type = amount.signum() > 0 ? Transaction.TransactionType.INCOME : Transaction.TransactionType.EXPENSE;
-            }
-
-            return Transaction.builder()
-                    .user(user)
-                    .amount(amount.abs())
-                    .date(date)
-                    .description(desc != null ? desc.trim() : "")
-                    .currency(record.getOrDefault("Currency", "KZT"))
-                    .category(record.getOrDefault("Category", "Uncategorized"))
-                    .type(type)
-                    .build();
-        } catch (Exception e) {
-            log.error("Error parsing CSV record: {}", e.getMessage());
-            return null;
+        // Determine type: explicit column or infer from amount sign
+        Transaction.TransactionType type;
+        String typeStr = record.get("Type");
+        if (typeStr != null && !typeStr.isBlank()) {
+            type = parseType(typeStr);
+        } else {
+            type = amount.signum() > 0 ? Transaction.TransactionType.INCOME : Transaction.TransactionType.EXPENSE;
         }
+
+        return Transaction.builder()
+                .user(user)
+                .amount(amount.abs())
+                .date(date)
+                .description(desc != null ? desc.trim() : "")
+                .currency(record.getOrDefault("Currency", "KZT"))
+                .category(record.getOrDefault("Category", "Uncategorized"))
+                .type(type)
+                .build();
     }
 
-    private Transaction parseExcelRow(Row row, User user) {
+    private static BigDecimal parseAmount(String amountStr) {
         try {
-            Cell dateCell = row.getCell(1);
-            Cell descCell = row.getCell(2);
-            Cell amountCell = row.getCell(3);
-            Cell currCell = row.getCell(4);
-            Cell catCell = row.getCell(5);
-            Cell typeCell = row.getCell(6);
-
-            if (dateCell == null || amountCell == null)
-                return null;
-
-            LocalDateTime date;
-            try {
-                date = LocalDateTime.parse(getCellStringValue(dateCell));
-            } catch (Exception e) {
-                date = LocalDateTime.now();
-            }
-
-            BigDecimal amount;
-            if (amountCell.getCellType() == CellType.NUMERIC) {
-                amount = new BigDecimal(amountCell.getNumericCellValue());
-            } else {
-                amount = new BigDecimal(amountCell.getStringCellValue().trim());
-            }
-
-            Transaction.TransactionType type;
-            String typeStr = getCellStringValue(typeCell);
-            if (typeStr != null && !typeStr.isBlank()) {
-                try {
-                    type = Transaction.TransactionType.valueOf(typeStr.trim().toUpperCase());
-                } catch (IllegalArgumentException e) {
-                    type = amount.signum() > 0 ? Transaction.TransactionType.INCOME
-                            : Transaction.TransactionType.EXPENSE;
-                }
-            } else {
-                type = amount.signum() > 0 ? Transaction.TransactionType.INCOME : Transaction.TransactionType.EXPENSE;
-            }
+            return new BigDecimal(amountStr.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid Amount '" + amountStr + "'");
+        }
+    }
 
-            return Transaction.builder()
-                    .user(user)
-                    .amount(amount.abs())
-                    .date(date)
-                    .description(getCellStringValue(descCell))
-                    .currency(currCell != null ? getCellStringValue(currCell) : "KZT")
-                    .category(catCell != null ? getCellStringValue(catCell) : "Uncategorized")
-                    .type(type)
-                    .build();
-
-        } catch (Exception e) {
-            log.error("Error parsing Excel row: {}", e.getMessage());
-            return null;
+    private static Transaction.TransactionType parseType(String typeStr) {
+        try {
+            return Transaction.TransactionType.valueOf(typeStr.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid Type '" + typeStr + "', expected INCOME or EXPENSE");
         }
     }
 
@@ -265,20 +393,61 @@ public class ReportService {
                 try {
                     return LocalDateTime.parse(dateStr, DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss"));
                 } catch (DateTimeParseException e3) {
-                    return LocalDateTime.now();
+                    throw new IllegalArgumentException("Invalid Date '" + dateStr + "'");
                 }
             }
         }
     }
 
+    // Raw cell contents, matching what the xlsx SAX reader produces
     private String getCellStringValue(Cell cell) {
         if (cell == null)
-            return "";
+            return null;
         return switch (cell.getCellType()) {
             case STRING -> cell.getStringCellValue();
-            case NUMERIC -> String.valueOf(cell.getNumericCellValue());
+            case NUMERIC -> DateUtil.isCellDateFormatted(cell)
+                    ? cell.getLocalDateTimeCellValue().toString()
+                    : BigDecimal.valueOf(cell.getNumericCellValue()).stripTrailingZeros().toPlainString();
             case BOOLEAN -> String.valueOf(cell.getBooleanCellValue());
-            default -> "";
+            default -> null;
         };
     }
+
+    public enum ExportFormat {
+        XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+        CSV("csv", "text/csv"),
+        CSV_GZ("csv.gz", "application/gzip"),
+        JSONL("jsonl", "application/x-ndjson");
+
+        private final String extension;
+        private final String contentType;
+
+        ExportFormat(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public static ExportFormat fromExtension(String extension) {
+            for (ExportFormat format : values()) {
+                if (format.extension.equalsIgnoreCase(extension)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported export format: " + extension
+                    + ". Use xlsx, csv, csv.gz or jsonl");
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(Transaction transaction) throws IOException;
+    }
 }
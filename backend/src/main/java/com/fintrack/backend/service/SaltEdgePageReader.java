@@ -0,0 +1,83 @@
+package com.fintrack.backend.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fintrack.backend.dto.SaltEdgeDTOs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams one Salt Edge {@code /transactions} response body. Elements of {@code data} are
+ * decoded one at a time and handed over in batches, so at most one batch of a page is held
+ * in memory at once. The {@code extra} object of each transaction is skipped unread.
+ */
+final class SaltEdgePageReader {
+
+    private static final ObjectReader TRANSACTION_READER = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .addMixIn(SaltEdgeDTOs.SaltEdgeTransactionData.class, WithoutExtra.class)
+            .build()
+            .readerFor(SaltEdgeDTOs.SaltEdgeTransactionData.class);
+
+    private SaltEdgePageReader() {
+    }
+
+    interface BatchSink {
+        void accept(List<SaltEdgeDTOs.SaltEdgeTransactionData> batch) throws IOException;
+    }
+
+    /**
+     * Number of transactions in the page and the id the next page starts from (null on the
+     * last page). {@code meta} may come before or after {@code data}.
+     */
+    record PageResult(int transactions, String nextId) {
+    }
+
+    static PageResult read(InputStream body, int batchSize, BatchSink sink) throws IOException {
+        try (JsonParser parser = TRANSACTION_READER.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Salt Edge response is not a JSON object");
+            }
+            int transactions = 0;
+            String nextId = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("data".equals(field) && value == JsonToken.START_ARRAY) {
+                    List<SaltEdgeDTOs.SaltEdgeTransactionData> batch = new ArrayList<>(batchSize);
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        batch.add(TRANSACTION_READER.readValue(parser));
+                        transactions++;
+                        if (batch.size() >= batchSize) {
+                            sink.accept(batch);
+                            batch = new ArrayList<>(batchSize);
+                        }
+                    }
+                    if (!batch.isEmpty()) {
+                        sink.accept(batch);
+                    }
+                } else if ("meta".equals(field) && value == JsonToken.START_OBJECT) {
+                    JsonNode meta = parser.readValueAsTree();
+                    JsonNode next = meta.get("next_id");
+                    nextId = next != null && !next.isNull() ? next.asText() : null;
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return new PageResult(transactions, nextId);
+        }
+    }
+
+    @JsonIgnoreProperties(value = "extra", ignoreUnknown = true)
+    private abstract static class WithoutExtra {
+    }
+}
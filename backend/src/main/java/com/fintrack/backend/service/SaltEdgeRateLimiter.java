@@ -0,0 +1,68 @@
+package com.fintrack.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket shared by every Salt Edge API call made by this node, so background syncs,
+ * imports and user-triggered syncs together stay under the provider's request limit.
+ * The bucket holds one second's worth of requests; a rate of zero disables limiting.
+ *
+ * The limit is per node: with several nodes, configure each with its share of the budget.
+ */
+@Component
+@Slf4j
+public class SaltEdgeRateLimiter {
+
+    private final double permitsPerSecond;
+    private final double capacity;
+    private final LongSupplier nanoClock;
+
+    private double tokens;
+    private long refilledAt;
+
+    @Autowired
+    public SaltEdgeRateLimiter(@Value("${saltedge.rate-limit.requests-per-second:5}") double permitsPerSecond) {
+        this(permitsPerSecond, System::nanoTime);
+    }
+
+    SaltEdgeRateLimiter(double permitsPerSecond, LongSupplier nanoClock) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.capacity = Math.max(1, permitsPerSecond);
+        this.nanoClock = nanoClock;
+        this.tokens = capacity;
+        this.refilledAt = nanoClock.getAsLong();
+    }
+
+    /**
+     * Block until a request may be sent.
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos;
+        while ((waitNanos = tryReserve()) > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Take a permit if one is available and return 0, otherwise return how long until one is.
+     */
+    synchronized long tryReserve() {
+        if (permitsPerSecond <= 0) {
+            return 0;
+        }
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * permitsPerSecond / 1_000_000_000d);
+        refilledAt = now;
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) * 1_000_000_000d / permitsPerSecond);
+    }
+}
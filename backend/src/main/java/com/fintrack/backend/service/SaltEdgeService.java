@@ -1,23 +1,48 @@
 package com.fintrack.backend.service;
 
 import com.fintrack.backend.dto.SaltEdgeDTOs;
+import com.fintrack.backend.entity.SyncCursor;
 import com.fintrack.backend.entity.Transaction;
 import com.fintrack.backend.entity.User;
 import com.fintrack.backend.entity.Transaction.TransactionType;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.InterruptedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,10 +51,16 @@ import java.util.stream.Collectors;
 public class SaltEdgeService {
 
     private final RestTemplate restTemplate;
-    private final com.fintrack.backend.repository.TransactionRepository transactionRepository;
+    private final com.fintrack.backend.repository.TransactionBulkRepository transactionBulkRepository;
     private final com.fintrack.backend.repository.UserRepository userRepository;
-    private final org.springframework.messaging.simp.SimpMessagingTemplate messagingTemplate;
+    private final TransactionEventPublisher transactionEventPublisher;
+    private final SyncRunService syncRunService;
     private final CategorizationService categorizationService;
+    private final SyncJobQueue syncJobQueue;
+    private final com.fintrack.backend.repository.SyncCursorRepository syncCursorRepository;
+    private final SaltEdgeRateLimiter rateLimiter;
+    private final ExternalIdIndex externalIdIndex;
+    private final PlatformTransactionManager transactionManager;
 
     @Value("${saltedge.app-id}")
     private String appId;
@@ -37,13 +68,48 @@ public class SaltEdgeService {
     @Value("${saltedge.secret}")
     private String secret;
 
-    private static final String BASE_URL = "https://www.saltedge.com/api/v6";
+    // Connection fetches running at once, across all customers
+    @Value("${saltedge.sync.max-concurrent-connections:8}")
+    private int maxConcurrentConnections = 8;
+
+    @Value("${saltedge.sync.max-connections-per-customer:3}")
+    private int maxConnectionsPerCustomer = 3;
+
+    // Overridable to point syncs at a stand-in server for load tests
+    @Value("${saltedge.base-url:https://www.saltedge.com/api/v6}")
+    private String baseUrl = "https://www.saltedge.com/api/v6";
+
+    // Transactions decoded, categorized and stored together
+    @Value("${saltedge.sync.batch-size:250}")
+    private int batchSize = 250;
+
+    // Batches downloaded ahead of the one being categorized and stored
+    @Value("${saltedge.sync.prefetch-pages:2}")
+    private int prefetchPages = 2;
+
+    // Attempts per page request after a timeout, 5xx or 429, with exponential backoff
+    @Value("${saltedge.sync.page-retries:3}")
+    private int pageRetries = 3;
+
+    @Value("${saltedge.sync.retry-base-ms:500}")
+    private long retryBaseMillis = 500;
+
+    @Value("${saltedge.sync.retry-max-ms:8000}")
+    private long retryMaxMillis = 8000;
+
+    private volatile ExecutorService syncExecutor;
+    private volatile ExecutorService prefetchExecutor;
+
+    // Shared by every import running for a customer on this node, so concurrent callbacks and
+    // scheduled imports together stay within saltedge.sync.max-connections-per-customer.
+    // An entry lives only while one of those imports is running.
+    private final Map<String, CustomerSlots> customerSlots = new ConcurrentHashMap<>();
 
     /**
      * Create a Salt Edge customer for a user. Returns the customer ID.
      */
     public String createCustomer(User user) {
-        String url = BASE_URL + "/customers";
+        String url = baseUrl + "/customers";
         log.info("Creating Salt Edge customer for userId={}, email={}", user.getId(), user.getEmail());
 
         HttpHeaders headers = buildHeaders();
@@ -51,6 +117,7 @@ public class SaltEdgeService {
         HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, headers);
 
         try {
+            rateLimiter.acquire();
             ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.POST, entity, Map.class);
             Map<String, Object> responseBody = response.getBody();
             if (responseBody != null && responseBody.containsKey("data")) {
@@ -84,7 +151,7 @@ public class SaltEdgeService {
     }
 
     public String createConnectSession(String customerId) {
-        String url = BASE_URL + "/connections/connect";
+        String url = baseUrl + "/connections/connect";
         log.info("Creating Connect Session for customer: {} with return_to: {}", customerId,
                 "http://localhost:8001/");
 
@@ -109,6 +176,7 @@ public class SaltEdgeService {
         HttpEntity<SaltEdgeDTOs.SaltEdgeConnectRequest> entity = new HttpEntity<>(requestBody, headers);
 
         try {
+            rateLimiter.acquire();
             ResponseEntity<SaltEdgeDTOs.SaltEdgeConnectResponse> response = restTemplate.exchange(
                     url, HttpMethod.POST, entity, SaltEdgeDTOs.SaltEdgeConnectResponse.class);
 
@@ -143,6 +211,10 @@ public class SaltEdgeService {
                 String customerId = (String) data.get("customer_id");
 
                 log.info("Connection finished. Connection ID: {}, Customer ID: {}", connectionId, customerId);
+                if (connectionId == null || connectionId.isBlank()) {
+                    log.warn("Ignoring finish callback without a connection_id for customer {}", customerId);
+                    return;
+                }
 
                 User user = userRepository.findBySaltEdgeCustomerId(customerId)
                         .orElseThrow(
@@ -153,11 +225,17 @@ public class SaltEdgeService {
                 userRepository.save(user);
                 log.info("Saved connection_id '{}' for user '{}'", connectionId, user.getEmail());
 
-                fetchTransactions(connectionId, user);
+                // Acknowledge right away; a sync worker does the fetch
+                syncJobQueue.enqueue(connectionId, customerId);
             }
         }
     }
 
+    /**
+     * Fetch and store the connection's transactions that are new since its last sync.
+     * The first sync of a connection walks its whole history. The run is recorded as a
+     * {@link com.fintrack.backend.entity.SyncRun}, checkpointed after every stored batch.
+     */
     public List<Transaction> fetchTransactions(String connectionId, User user) {
         HttpHeaders headers = new HttpHeaders();
         headers.set("App-id", appId);
@@ -168,55 +246,248 @@ public class SaltEdgeService {
         HttpEntity<String> entity = new HttpEntity<>(headers);
         List<Transaction> allSaved = new java.util.ArrayList<>();
 
+        // The next batch downloads while this thread categorizes and stores the current one;
+        // the bounded queue stops the downloader from running too far ahead
+        BlockingQueue<FetchedPage> pages = new ArrayBlockingQueue<>(Math.max(1, prefetchPages));
+        String fromId = syncCursorRepository.findByConnectionId(connectionId)
+                .map(SyncCursor::getLastTransactionId)
+                .orElse(null);
+        Long runId = syncRunService.start(connectionId, user, fromId);
+        Future<?> prefetcher = prefetchExecutor().submit(() -> prefetchPages(connectionId, fromId, entity, pages, runId));
+
         try {
-            String url = BASE_URL + "/transactions?connection_id=" + connectionId;
+            while (true) {
+                FetchedPage page = pages.take();
+                if (page.error() != null) {
+                    throw page.error();
+                }
+                if (page.data() == null) {
+                    break;
+                }
+                List<Transaction> inserted = processPage(page.data(), user);
+                allSaved.addAll(inserted);
+                // Only once the page is stored, so a failed sync retries it next time
+                String cursor = advanceCursor(connectionId, page.data());
+                syncRunService.checkpoint(runId, cursor, inserted.size());
+                // Each stored batch reaches the owner's open sessions right away
+                transactionEventPublisher.publishAdded(user, connectionId, inserted);
+            }
+        } catch (Exception e) {
+            log.error("Error fetching transactions", e);
+            syncRunService.fail(runId, e);
+            throw new RuntimeException("Failed to fetch transactions", e);
+        } finally {
+            prefetcher.cancel(true);
+        }
 
-            while (url != null) {
-                log.info("Fetching transactions page: {}", url);
+        syncRunService.complete(runId);
+        return allSaved;
+    }
 
-                ResponseEntity<SaltEdgeDTOs.SaltEdgeTransactionResponse> response = restTemplate.exchange(
-                        url, HttpMethod.GET, entity, SaltEdgeDTOs.SaltEdgeTransactionResponse.class);
+    /**
+     * Forget how far the connection was synced, so its next sync walks the whole history again.
+     */
+    public void resetCursor(String connectionId) {
+        if (syncCursorRepository.deleteByConnectionId(connectionId) > 0) {
+            log.info("Sync cursor reset for connection {}", connectionId);
+        }
+    }
 
-                SaltEdgeDTOs.SaltEdgeTransactionResponse body = response.getBody();
-                if (body == null || body.getData() == null || body.getData().isEmpty()) {
-                    break;
+    /**
+     * Walk the connection's pages via meta.next_id, starting at {@code fromId} when given,
+     * and hand over their transactions in batches as they are parsed off the wire, ending
+     * with an empty marker (or the error that stopped the walk).
+     */
+    private void prefetchPages(String connectionId, String fromId, HttpEntity<String> entity,
+            BlockingQueue<FetchedPage> pages, Long runId) {
+        try {
+            try {
+                if (fromId != null) {
+                    // from_id is inclusive: the last stored transaction comes back and is skipped as a duplicate
+                    log.info("Resuming connection {} from transaction {}", connectionId, fromId);
+                }
+                String from = fromId;
+                while (true) {
+                    SaltEdgePageReader.PageResult page = fetchPage(connectionId, from, entity, pages, runId);
+                    if (page == null || page.transactions() == 0 || page.nextId() == null) {
+                        break;
+                    }
+                    from = page.nextId();
                 }
+                pages.put(new FetchedPage(null, null));
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                pages.put(new FetchedPage(null, e));
+            }
+        } catch (InterruptedException e) {
+            // The consumer gave up; nobody is waiting for more pages
+            Thread.currentThread().interrupt();
+        }
+    }
 
-                List<SaltEdgeDTOs.SaltEdgeTransactionData> transactionDataList = body.getData();
-                List<String> externalIds = transactionDataList.stream()
-                        .map(SaltEdgeDTOs.SaltEdgeTransactionData::getId)
-                        .collect(Collectors.toList());
-
-                Set<String> existingExternalIds = transactionRepository.findByExternalIdIn(externalIds).stream()
-                        .map(Transaction::getExternalId)
-                        .collect(Collectors.toSet());
-
-                List<Transaction> saved = transactionDataList.stream()
-                        .filter(data -> !existingExternalIds.contains(data.getId()))
-                        .map(data -> mapToTransaction(data, user))
-                        .map(transactionRepository::save)
-                        .collect(Collectors.toList());
-                allSaved.addAll(saved);
-
-                // Check for next page
-                if (body.getMeta() != null && body.getMeta().getNextId() != null) {
-                    url = BASE_URL + "/transactions?connection_id=" + connectionId
-                            + "&from_id=" + body.getMeta().getNextId();
-                } else {
-                    url = null;
+    /**
+     * Download one page, retrying timeouts, 5xx and 429 responses with exponential backoff.
+     * A retry after part of the page was handed over asks for the rest only.
+     */
+    private SaltEdgePageReader.PageResult fetchPage(String connectionId, String from, HttpEntity<String> entity,
+            BlockingQueue<FetchedPage> pages, Long runId) throws InterruptedException {
+        AtomicReference<String> handedOver = new AtomicReference<>();
+        String url = pageUrl(connectionId, from);
+        for (int attempt = 1; ; attempt++) {
+            log.info("Fetching transactions page: {}", url);
+            rateLimiter.acquire();
+            try {
+                return restTemplate.execute(url, HttpMethod.GET,
+                        request -> request.getHeaders().putAll(entity.getHeaders()),
+                        response -> SaltEdgePageReader.read(response.getBody(), Math.max(1, batchSize), batch -> {
+                            handOver(pages, batch);
+                            SaltEdgeDTOs.SaltEdgeTransactionData last = highest(batch);
+                            if (last != null) {
+                                handedOver.set(last.getId());
+                            }
+                        }));
+            } catch (RestClientException e) {
+                if (Thread.currentThread().isInterrupted() || !isTransient(e) || attempt > pageRetries) {
+                    throw e;
+                }
+                long delay = Math.min(retryMaxMillis, retryBaseMillis << Math.min(attempt - 1, 20));
+                log.warn("Transactions page for connection {} failed ({}), retry {}/{} in {} ms",
+                        connectionId, e.getMessage(), attempt, pageRetries, delay);
+                syncRunService.recordRetry(runId);
+                Thread.sleep(delay);
+                if (handedOver.get() != null) {
+                    url = pageUrl(connectionId, handedOver.get());
                 }
             }
-        } catch (Exception e) {
-            log.error("Error fetching transactions", e);
-            throw new RuntimeException("Failed to fetch transactions", e);
         }
+    }
 
-        // Notify Frontend via WebSocket
-        if (!allSaved.isEmpty()) {
-            messagingTemplate.convertAndSend("/topic/transactions", "Transactions updated");
+    private String pageUrl(String connectionId, String from) {
+        return baseUrl + "/transactions?connection_id=" + connectionId + (from != null ? "&from_id=" + from : "");
+    }
+
+    private static boolean isTransient(RestClientException e) {
+        return e instanceof ResourceAccessException
+                || e instanceof HttpServerErrorException
+                || e instanceof HttpClientErrorException.TooManyRequests;
+    }
+
+    // Called on the download thread while the response is still streaming
+    private static void handOver(BlockingQueue<FetchedPage> pages, List<SaltEdgeDTOs.SaltEdgeTransactionData> batch)
+            throws InterruptedIOException {
+        try {
+            pages.put(new FetchedPage(batch, null));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Sync cancelled while downloading");
         }
+    }
 
-        return allSaved;
+    private List<Transaction> processPage(List<SaltEdgeDTOs.SaltEdgeTransactionData> transactionDataList, User user) {
+        List<String> externalIds = transactionDataList.stream()
+                .map(SaltEdgeDTOs.SaltEdgeTransactionData::getId)
+                .collect(Collectors.toList());
+
+        Set<String> existingExternalIds = externalIdIndex.findExisting(user.getId(), externalIds);
+
+        List<SaltEdgeDTOs.SaltEdgeTransactionData> newData = transactionDataList.stream()
+                .filter(data -> !existingExternalIds.contains(data.getId()))
+                .collect(Collectors.toList());
+
+        // One categorization pass per batch: local misses go to the AI in batched prompts
+        Map<String, String> categories = categorizationService.categorizeAll(user.getId(), newData.stream()
+                .map(SaltEdgeDTOs.SaltEdgeTransactionData::getDescription)
+                .collect(Collectors.toList()));
+
+        return persistPage(newData.stream()
+                .map(data -> mapToTransaction(data, user, categories.get(data.getDescription())))
+                .collect(Collectors.toList()), user);
+    }
+
+    /**
+     * Move the connection's cursor to the highest transaction id on the page. Salt Edge ids
+     * grow over time, so anything booked later has a higher id and is still picked up.
+     */
+    private String advanceCursor(String connectionId, List<SaltEdgeDTOs.SaltEdgeTransactionData> page) {
+        SaltEdgeDTOs.SaltEdgeTransactionData last = highest(page);
+        if (last == null) {
+            return null;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (syncCursorRepository.advance(connectionId, last.getId(), last.getMadeOn(), now) > 0) {
+            return last.getId();
+        }
+        try {
+            syncCursorRepository.save(SyncCursor.builder()
+                    .connectionId(connectionId)
+                    .lastTransactionId(last.getId())
+                    .lastMadeOn(last.getMadeOn())
+                    .updatedAt(now)
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent sync of the same connection created it first
+            syncCursorRepository.advance(connectionId, last.getId(), last.getMadeOn(), now);
+        }
+        return last.getId();
+    }
+
+    private static SaltEdgeDTOs.SaltEdgeTransactionData highest(List<SaltEdgeDTOs.SaltEdgeTransactionData> page) {
+        return page.stream()
+                .filter(data -> data.getId() != null)
+                .max(Comparator.comparing(SaltEdgeDTOs.SaltEdgeTransactionData::getId, SaltEdgeService::compareIds))
+                .orElse(null);
+    }
+
+    // Ids are numeric strings; compare by value so "100" sorts after "99"
+    static int compareIds(String a, String b) {
+        String x = a.replaceFirst("^0+(?=.)", "");
+        String y = b.replaceFirst("^0+(?=.)", "");
+        boolean numeric = x.chars().allMatch(Character::isDigit) && y.chars().allMatch(Character::isDigit);
+        if (numeric && x.length() != y.length()) {
+            return Integer.compare(x.length(), y.length());
+        }
+        return x.compareTo(y);
+    }
+
+    /**
+     * Store one page in a single statement. Rows a concurrent sync already inserted are
+     * skipped by the database rather than failing the page. The balance moves by the signed
+     * amounts of the rows the insert returned, in the same transaction, instead of re-summing
+     * the user's whole ledger.
+     */
+    private List<Transaction> persistPage(List<Transaction> page, User user) {
+        if (page.isEmpty()) {
+            return page;
+        }
+        List<Transaction> inserted = new TransactionTemplate(transactionManager).execute(status -> {
+            List<Transaction> rows = transactionBulkRepository.insertIgnoringDuplicates(page);
+            BigDecimal delta = balanceDelta(rows);
+            if (delta.signum() != 0) {
+                userRepository.adjustBalance(user.getId(), delta);
+            }
+            return rows;
+        });
+        if (!inserted.isEmpty()) {
+            externalIdIndex.recordInserted(user.getId(), inserted.stream()
+                    .map(Transaction::getExternalId)
+                    .collect(Collectors.toList()));
+        }
+        log.info("Page stored: {} inserted, {} already present", inserted.size(), page.size() - inserted.size());
+        return inserted;
+    }
+
+    // Same sign convention as the ledger sum: income adds, everything else subtracts
+    static BigDecimal balanceDelta(List<Transaction> rows) {
+        BigDecimal delta = BigDecimal.ZERO;
+        for (Transaction t : rows) {
+            if (t.getAmount() != null) {
+                delta = t.getType() == TransactionType.INCOME
+                        ? delta.add(t.getAmount())
+                        : delta.subtract(t.getAmount());
+            }
+        }
+        return delta;
     }
 
     public void importDataForCustomer(User user) {
@@ -226,12 +497,13 @@ public class SaltEdgeService {
             return;
         }
 
-        String url = BASE_URL + "/connections?customer_id=" + customerId;
+        String url = baseUrl + "/connections?customer_id=" + customerId;
         HttpHeaders headers = buildHeaders();
         HttpEntity<String> entity = new HttpEntity<>(headers);
 
         try {
             log.info("Checking for Salt Edge connections for customerId={}", customerId);
+            rateLimiter.acquire();
             ResponseEntity<SaltEdgeDTOs.SaltEdgeConnectionResponse> response = restTemplate.exchange(
                     url, HttpMethod.GET, entity, SaltEdgeDTOs.SaltEdgeConnectionResponse.class);
 
@@ -245,10 +517,7 @@ public class SaltEdgeService {
                     log.info("Discovered and saved connection_id '{}' for user '{}'", discoveredId, user.getEmail());
                 }
 
-                for (SaltEdgeDTOs.ConnectionData connection : connBody.getData()) {
-                    log.info("Fetching transactions for connection: {}", connection.getId());
-                    fetchTransactions(connection.getId(), user);
-                }
+                fetchConnectionsConcurrently(connBody.getData(), user);
             } else {
                 log.info("No connections found for Salt Edge customerId={}", customerId);
             }
@@ -257,11 +526,123 @@ public class SaltEdgeService {
         }
     }
 
-    private Transaction mapToTransaction(SaltEdgeDTOs.SaltEdgeTransactionData data, User user) {
+    /**
+     * Fetch every connection of one customer in parallel, at most
+     * {@code saltedge.sync.max-connections-per-customer} at a time across all imports of that
+     * customer, on the shared pool of
+     * {@code saltedge.sync.max-concurrent-connections} threads. Returns once all are done;
+     * a failing connection is logged and does not stop the others.
+     */
+    private void fetchConnectionsConcurrently(List<SaltEdgeDTOs.ConnectionData> connections, User user) {
+        String customerId = user.getSaltEdgeCustomerId();
+        Semaphore slots = customerSlots.compute(customerId, (id, current) -> {
+            CustomerSlots entry = current != null ? current
+                    : new CustomerSlots(new Semaphore(Math.max(1, maxConnectionsPerCustomer)));
+            entry.imports++;
+            return entry;
+        }).permits;
+        try {
+            fetchConnections(connections, user, slots);
+        } finally {
+            // The last import of the customer has every permit back; drop its entry
+            customerSlots.computeIfPresent(customerId, (id, entry) -> --entry.imports == 0 ? null : entry);
+        }
+    }
+
+    private void fetchConnections(List<SaltEdgeDTOs.ConnectionData> connections, User user, Semaphore slots) {
+        List<CompletableFuture<Void>> fetches = new ArrayList<>();
+        try {
+            for (SaltEdgeDTOs.ConnectionData connection : connections) {
+                slots.acquire();
+                try {
+                    fetches.add(CompletableFuture.runAsync(() -> {
+                        try {
+                            log.info("Fetching transactions for connection: {}", connection.getId());
+                            fetchTransactions(connection.getId(), user);
+                        } catch (Exception e) {
+                            log.error("Sync failed for connection {}", connection.getId(), e);
+                        } finally {
+                            slots.release();
+                        }
+                    }, syncExecutor()));
+                } catch (RejectedExecutionException e) {
+                    slots.release();
+                    throw e;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while scheduling connection syncs for userId={}", user.getId());
+        } finally {
+            // Even when scheduling failed, so the started fetches have released their permits
+            CompletableFuture.allOf(fetches.toArray(new CompletableFuture<?>[0])).join();
+        }
+    }
+
+    // Only read or changed inside customerSlots.compute, which serializes it per customer
+    private static final class CustomerSlots {
+        private final Semaphore permits;
+        private int imports;
+
+        private CustomerSlots(Semaphore permits) {
+            this.permits = permits;
+        }
+    }
+
+    private ExecutorService prefetchExecutor() {
+        ExecutorService executor = prefetchExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                if (prefetchExecutor == null) {
+                    AtomicInteger threads = new AtomicInteger();
+                    // One downloader per running fetch, so it is bounded by the sync caps
+                    prefetchExecutor = Executors.newCachedThreadPool(r -> {
+                        Thread t = new Thread(r, "saltedge-prefetch-" + threads.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    });
+                }
+                executor = prefetchExecutor;
+            }
+        }
+        return executor;
+    }
+
+    private ExecutorService syncExecutor() {
+        ExecutorService executor = syncExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                if (syncExecutor == null) {
+                    AtomicInteger threads = new AtomicInteger();
+                    syncExecutor = Executors.newFixedThreadPool(Math.max(1, maxConcurrentConnections), r -> {
+                        Thread t = new Thread(r, "saltedge-sync-" + threads.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    });
+                }
+                executor = syncExecutor;
+            }
+        }
+        return executor;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (syncExecutor != null) {
+            syncExecutor.shutdownNow();
+        }
+        if (prefetchExecutor != null) {
+            prefetchExecutor.shutdownNow();
+        }
+    }
+
+    private Transaction mapToTransaction(SaltEdgeDTOs.SaltEdgeTransactionData data, User user, String category) {
         TransactionType type = data.getAmount().signum() > 0 ? TransactionType.INCOME : TransactionType.EXPENSE;
 
-        // Use hybrid categorization: local keyword map → AI fallback
-        String category = categorizationService.categorize(data.getDescription());
+        // Category comes from hybrid categorization: local keyword map → AI fallback
+        if (category == null) {
+            category = "Uncategorized";
+        }
         // Fall back to Salt Edge category if our categorizer returns Uncategorized
         if ("Uncategorized".equals(category) && data.getCategory() != null && !data.getCategory().isBlank()) {
             category = data.getCategory();
@@ -278,4 +659,8 @@ public class SaltEdgeService {
                 .type(type)
                 .build();
     }
+
+    // A downloaded batch, or the end of the walk (no data), or what stopped it
+    private record FetchedPage(List<SaltEdgeDTOs.SaltEdgeTransactionData> data, Exception error) {
+    }
 }
@@ -0,0 +1,115 @@
+package com.fintrack.backend.service;
+
+import com.fintrack.backend.repository.SyncJobRepository;
+import com.fintrack.backend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Periodically queues a background sync for every connected user, through
+ * {@link SyncJobQueue} so the usual worker, retry and per-connection exclusion apply.
+ *
+ * Users who logged in within {@code saltedge.schedule.active-days} are refreshed every
+ * {@code active-interval-minutes}, everyone else every {@code idle-interval-minutes}. Each
+ * sweep queues the connections that waited longest first, at most {@code max-per-sweep}, so
+ * a large backlog is worked off round-robin over several sweeps. Jobs get a random start
+ * within the jitter window, active users ahead of idle ones, to avoid bursts against the API.
+ *
+ * Sweeps are safe to run on every node: a connection queued by any node in the current
+ * interval is skipped, and the queue's dedup key collapses simultaneous enqueues.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SaltEdgeSyncScheduler {
+
+    private final UserRepository userRepository;
+    private final SyncJobRepository syncJobRepository;
+    private final SyncJobQueue syncJobQueue;
+
+    @Value("${saltedge.schedule.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${saltedge.schedule.active-days:7}")
+    private long activeDays = 7;
+
+    @Value("${saltedge.schedule.active-interval-minutes:60}")
+    private long activeIntervalMinutes = 60;
+
+    @Value("${saltedge.schedule.idle-interval-minutes:360}")
+    private long idleIntervalMinutes = 360;
+
+    @Value("${saltedge.schedule.jitter-seconds:300}")
+    private long jitterSeconds = 300;
+
+    @Value("${saltedge.schedule.max-per-sweep:500}")
+    private int maxPerSweep = 500;
+
+    @Scheduled(initialDelayString = "${saltedge.schedule.sweep-interval-ms:300000}",
+            fixedDelayString = "${saltedge.schedule.sweep-interval-ms:300000}")
+    public void scheduledSweep() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            sweep();
+        } catch (Exception e) {
+            log.error("Background sync sweep failed", e);
+        }
+    }
+
+    /**
+     * Queue the connections that are due. Returns how many were queued.
+     */
+    public int sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime activeSince = now.minusDays(activeDays);
+        Map<String, LocalDateTime> lastQueued = syncJobRepository
+                .findLastQueuedSince(now.minusMinutes(Math.max(activeIntervalMinutes, idleIntervalMinutes))).stream()
+                .collect(Collectors.toMap(SyncJobRepository.LastQueued::getConnectionId,
+                        SyncJobRepository.LastQueued::getLastQueuedAt, (a, b) -> a.isAfter(b) ? a : b));
+
+        List<Due> due = userRepository.findSyncTargets().stream()
+                .map(target -> {
+                    boolean active = target.getLastLoginAt() != null && target.getLastLoginAt().isAfter(activeSince);
+                    LocalDateTime queuedAt = lastQueued.get(target.getConnectionId());
+                    long interval = active ? activeIntervalMinutes : idleIntervalMinutes;
+                    if (queuedAt != null && queuedAt.isAfter(now.minusMinutes(interval))) {
+                        return null;
+                    }
+                    return new Due(target, active, queuedAt);
+                })
+                .filter(Objects::nonNull)
+                // Active users first, then whoever has waited longest (never queued counts as longest)
+                .sorted(Comparator.comparing((Due d) -> !d.active())
+                        .thenComparing(Due::queuedAt, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .limit(Math.max(0, maxPerSweep))
+                .toList();
+
+        long window = Math.max(1, jitterSeconds);
+        for (Due d : due) {
+            // Active users start within the first jitter window, idle users within the second
+            long offset = ThreadLocalRandom.current().nextLong(window) + (d.active() ? 0 : window);
+            syncJobQueue.enqueue(d.target().getConnectionId(), d.target().getCustomerId(), now.plusSeconds(offset));
+        }
+        if (!due.isEmpty()) {
+            log.info("Background sync sweep queued {} connections ({} active users)", due.size(),
+                    due.stream().filter(Due::active).count());
+        }
+        return due.size();
+    }
+
+    private record Due(UserRepository.SyncTarget target, boolean active, LocalDateTime queuedAt) {
+    }
+}
@@ -0,0 +1,157 @@
+package com.fintrack.backend.service;
+
+import com.fintrack.backend.entity.SyncJob;
+import com.fintrack.backend.repository.SyncJobRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+/**
+ * DB-backed queue of Salt Edge sync jobs. Any node may enqueue or claim: claiming uses
+ * {@code FOR UPDATE SKIP LOCKED}, and a unique dedup key keeps at most one waiting job
+ * per connection, so repeated callbacks for the same connection collapse into one sync.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SyncJobQueue {
+
+    private final SyncJobRepository syncJobRepository;
+
+    @Value("${saltedge.jobs.max-attempts:5}")
+    private int maxAttempts = 5;
+
+    @Value("${saltedge.jobs.retry-base-seconds:30}")
+    private long retryBaseSeconds = 30;
+
+    @Value("${saltedge.jobs.retry-max-seconds:3600}")
+    private long retryMaxSeconds = 3600;
+
+    /**
+     * Queue a sync for the connection, or return the job already waiting for it.
+     */
+    public SyncJob enqueue(String connectionId, String customerId) {
+        return enqueue(connectionId, customerId, LocalDateTime.now());
+    }
+
+    /**
+     * Queue a sync that becomes due at {@code runAfter}, or return the job already waiting.
+     */
+    public SyncJob enqueue(String connectionId, String customerId, LocalDateTime runAfter) {
+        if (connectionId == null || connectionId.isBlank()) {
+            throw new IllegalArgumentException("Cannot queue a sync without a connection id");
+        }
+        try {
+            return insert(connectionId, customerId, runAfter);
+        } catch (DataIntegrityViolationException e) {
+            Optional<SyncJob> waiting = syncJobRepository.findByDedupKey(connectionId);
+            if (waiting.isPresent()) {
+                log.info("Sync for connection {} already queued as job #{}", connectionId, waiting.get().getId());
+                return waiting.get();
+            }
+            // The waiting job was claimed in between; queue a fresh one, once. Any other
+            // constraint failure would fail again, so it surfaces instead of looping.
+            try {
+                return insert(connectionId, customerId, runAfter);
+            } catch (DataIntegrityViolationException retryFailure) {
+                if (retryFailure != e) {
+                    e.addSuppressed(retryFailure);
+                }
+                throw e;
+            }
+        }
+    }
+
+    private SyncJob insert(String connectionId, String customerId, LocalDateTime runAfter) {
+        SyncJob job = syncJobRepository.saveAndFlush(SyncJob.builder()
+                .connectionId(connectionId)
+                .customerId(customerId)
+                .dedupKey(connectionId)
+                .runAfter(runAfter)
+                .build());
+        log.info("Queued sync job #{} for connection {}", job.getId(), connectionId);
+        return job;
+    }
+
+    /**
+     * Claim the oldest due job, or return empty when there is none. Clearing the dedup key
+     * lets a callback that arrives during the sync queue a follow-up run. The claim time is
+     * kept on the job and keys its completion, so a worker whose job was requeued cannot
+     * overwrite the new claim.
+     */
+    @Transactional
+    public Optional<SyncJob> claimNext() {
+        // Compared for equality later, so keep it at a precision every database stores
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        return syncJobRepository.lockNextDue(now).map(job -> {
+            job.setStatus(SyncJob.Status.RUNNING);
+            job.setDedupKey(null);
+            job.setLockedAt(now);
+            job.setAttempts(job.getAttempts() + 1);
+            return syncJobRepository.save(job);
+        });
+    }
+
+    public void complete(SyncJob job) {
+        if (syncJobRepository.complete(job.getId(), job.getLockedAt(), LocalDateTime.now()) == 0) {
+            log.warn("Sync job #{} was requeued while it ran; its new claim stands", job.getId());
+        }
+    }
+
+    /**
+     * Schedule another attempt with exponential backoff, or give up after
+     * {@code saltedge.jobs.max-attempts}. A retry is dropped when a newer job for the same
+     * connection is already waiting, since that one will do the same sync.
+     */
+    public void fail(SyncJob job, Exception error) {
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        String lastError = truncate(message);
+
+        if (job.getAttempts() >= maxAttempts) {
+            if (syncJobRepository.finish(job.getId(), job.getLockedAt(), SyncJob.Status.FAILED, lastError,
+                    LocalDateTime.now()) > 0) {
+                log.error("Sync job #{} for connection {} failed after {} attempts: {}",
+                        job.getId(), job.getConnectionId(), job.getAttempts(), message);
+            }
+            return;
+        }
+
+        long delay = Math.min(retryMaxSeconds, retryBaseSeconds << Math.min(job.getAttempts() - 1, 20));
+        try {
+            if (syncJobRepository.retry(job.getId(), job.getLockedAt(), lastError,
+                    LocalDateTime.now().plusSeconds(delay)) > 0) {
+                log.warn("Sync job #{} attempt {} failed, retrying in {}s: {}", job.getId(), job.getAttempts(), delay,
+                        message);
+            }
+        } catch (DataIntegrityViolationException e) {
+            syncJobRepository.finish(job.getId(), job.getLockedAt(), SyncJob.Status.DONE,
+                    truncate("Superseded by a newer job: " + message), LocalDateTime.now());
+            log.info("Sync job #{} not retried, a newer job for connection {} is queued", job.getId(),
+                    job.getConnectionId());
+        }
+    }
+
+    /**
+     * Put jobs whose worker died mid-sync back in the queue: claimed before {@code staleBefore}
+     * and no sync run heartbeat for the connection since.
+     */
+    @Transactional
+    public int requeueStale(LocalDateTime staleBefore) {
+        return syncJobRepository.requeueStale(staleBefore, LocalDateTime.now());
+    }
+
+    public long pending() {
+        return syncJobRepository.countByStatus(SyncJob.Status.PENDING);
+    }
+
+    private static String truncate(String error) {
+        return error.length() > 1000 ? error.substring(0, 1000) : error;
+    }
+}
@@ -0,0 +1,136 @@
+package com.fintrack.backend.service;
+
+import com.fintrack.backend.entity.SyncJob;
+import com.fintrack.backend.entity.User;
+import com.fintrack.backend.exception.ResourceNotFoundException;
+import com.fintrack.backend.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains {@link SyncJobQueue} on a small pool of worker threads. Only claims as many jobs
+ * as it has idle workers, so unclaimed jobs stay available to other nodes.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SyncJobWorker {
+
+    private final SyncJobQueue syncJobQueue;
+    private final SaltEdgeService saltEdgeService;
+    private final UserRepository userRepository;
+
+    @Value("${saltedge.jobs.workers:4}")
+    private int workers = 4;
+
+    @Value("${saltedge.jobs.lease-minutes:30}")
+    private long leaseMinutes = 30;
+
+    private volatile Semaphore idleWorkers;
+    private volatile ExecutorService executor;
+
+    @Scheduled(fixedDelayString = "${saltedge.jobs.poll-interval-ms:2000}")
+    public void poll() {
+        try {
+            Semaphore slots = idleWorkers();
+            while (slots.tryAcquire()) {
+                Optional<SyncJob> claimed;
+                try {
+                    claimed = syncJobQueue.claimNext();
+                } catch (RuntimeException e) {
+                    slots.release();
+                    throw e;
+                }
+                if (claimed.isEmpty()) {
+                    slots.release();
+                    return;
+                }
+                SyncJob job = claimed.get();
+                executor().execute(() -> {
+                    try {
+                        process(job);
+                    } finally {
+                        slots.release();
+                    }
+                });
+            }
+        } catch (Exception e) {
+            log.error("Sync job poll failed", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${saltedge.jobs.reaper-interval-ms:60000}")
+    public void requeueStale() {
+        try {
+            int requeued = syncJobQueue.requeueStale(LocalDateTime.now().minusMinutes(leaseMinutes));
+            if (requeued > 0) {
+                log.warn("Requeued {} sync jobs whose worker stopped responding", requeued);
+            }
+        } catch (Exception e) {
+            log.error("Sync job reaper failed", e);
+        }
+    }
+
+    void process(SyncJob job) {
+        log.info("Running sync job #{} for connection {} (attempt {})", job.getId(), job.getConnectionId(),
+                job.getAttempts());
+        try {
+            User user = userRepository.findBySaltEdgeCustomerId(job.getCustomerId())
+                    .orElseThrow(() -> new ResourceNotFoundException(
+                            "User not found for Salt Edge Customer ID: " + job.getCustomerId()));
+            saltEdgeService.fetchTransactions(job.getConnectionId(), user);
+            syncJobQueue.complete(job);
+        } catch (Exception e) {
+            syncJobQueue.fail(job, e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private Semaphore idleWorkers() {
+        Semaphore slots = idleWorkers;
+        if (slots == null) {
+            synchronized (this) {
+                if (idleWorkers == null) {
+                    idleWorkers = new Semaphore(Math.max(1, workers));
+                }
+                slots = idleWorkers;
+            }
+        }
+        return slots;
+    }
+
+    private ExecutorService executor() {
+        ExecutorService pool = executor;
+        if (pool == null) {
+            synchronized (this) {
+                if (executor == null) {
+                    AtomicInteger threads = new AtomicInteger();
+                    executor = Executors.newFixedThreadPool(Math.max(1, workers), r -> {
+                        Thread t = new Thread(r, "sync-job-" + threads.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    });
+                }
+                pool = executor;
+            }
+        }
+        return pool;
+    }
+}
@@ -0,0 +1,98 @@
+package com.fintrack.backend.service;
+
+import com.fintrack.backend.entity.SyncRun;
+import com.fintrack.backend.entity.User;
+import com.fintrack.backend.repository.SyncRunRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Bookkeeping for Salt Edge sync runs. A run is checkpointed after every stored batch; the
+ * connection's sync cursor moves at the same time, so a run that dies mid-way leaves the
+ * next one to start right after its last checkpoint.
+ *
+ * Runs that stop heartbeating for {@code saltedge.jobs.lease-minutes} (the node crashed or
+ * restarted) are marked interrupted and a sync job is queued to resume them.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SyncRunService {
+
+    private final SyncRunRepository syncRunRepository;
+    private final SyncJobQueue syncJobQueue;
+
+    @Value("${saltedge.jobs.lease-minutes:30}")
+    private long leaseMinutes = 30;
+
+    /**
+     * Record the start of a run and return its id.
+     */
+    public Long start(String connectionId, User user, String fromId) {
+        SyncRun run = syncRunRepository.save(SyncRun.builder()
+                .connectionId(connectionId)
+                .customerId(user.getSaltEdgeCustomerId())
+                .userId(user.getId())
+                .startedFromId(fromId)
+                .build());
+        return run.getId();
+    }
+
+    public void checkpoint(Long runId, String cursor, int inserted) {
+        syncRunRepository.checkpoint(runId, cursor, inserted, LocalDateTime.now());
+    }
+
+    public void recordRetry(Long runId) {
+        syncRunRepository.recordRetry(runId, LocalDateTime.now());
+    }
+
+    public void complete(Long runId) {
+        syncRunRepository.finish(runId, SyncRun.Status.COMPLETED, null, LocalDateTime.now());
+    }
+
+    public void fail(Long runId, Exception error) {
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        syncRunRepository.finish(runId, SyncRun.Status.FAILED,
+                message.length() > 1000 ? message.substring(0, 1000) : message, LocalDateTime.now());
+    }
+
+    public List<SyncRun> recentRuns(Long userId) {
+        return syncRunRepository.findTop20ByUserIdOrderByIdDesc(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${saltedge.jobs.reaper-interval-ms:60000}")
+    public void scheduledResume() {
+        try {
+            resumeInterrupted();
+        } catch (Exception e) {
+            log.error("Resuming interrupted sync runs failed", e);
+        }
+    }
+
+    /**
+     * Mark runs whose node stopped heartbeating as interrupted and queue their connections
+     * again. Returns how many were resumed.
+     */
+    public int resumeInterrupted() {
+        LocalDateTime now = LocalDateTime.now();
+        int resumed = 0;
+        for (SyncRun run : syncRunRepository.findByStatusAndHeartbeatAtBefore(SyncRun.Status.RUNNING,
+                now.minusMinutes(leaseMinutes))) {
+            if (syncRunRepository.finish(run.getId(), SyncRun.Status.INTERRUPTED, "No heartbeat since "
+                    + run.getHeartbeatAt(), now) == 0) {
+                continue;
+            }
+            log.warn("Sync run #{} for connection {} was interrupted after {} batches; resuming from {}",
+                    run.getId(), run.getConnectionId(), run.getBatchesDone(), run.getCursor());
+            syncJobQueue.enqueue(run.getConnectionId(), run.getCustomerId());
+            resumed++;
+        }
+        return resumed;
+    }
+}
@@ -0,0 +1,68 @@
+package com.fintrack.backend.service;
+
+import com.fintrack.backend.dto.TransactionDeltaEvent;
+import com.fintrack.backend.dto.TransactionDto;
+import com.fintrack.backend.entity.Transaction;
+import com.fintrack.backend.entity.User;
+import com.fintrack.backend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Pushes transaction changes to the owning user's WebSocket sessions only. Sessions are
+ * identified by the email the STOMP CONNECT was authenticated with.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionEventPublisher {
+
+    static final String DESTINATION = "/queue/transactions";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final UserRepository userRepository;
+
+    public void publishAdded(User user, String connectionId, List<Transaction> added) {
+        if (added.isEmpty() || user.getEmail() == null) {
+            return;
+        }
+        TransactionDeltaEvent event = TransactionDeltaEvent.builder()
+                .type(TransactionDeltaEvent.TRANSACTIONS_ADDED)
+                .connectionId(connectionId)
+                .transactions(added.stream().map(tx -> mapToDto(tx, user)).toList())
+                .balance(user.getId() != null ? userRepository.findBalanceById(user.getId()) : null)
+                .categories(added.stream()
+                        .map(Transaction::getCategory)
+                        .filter(Objects::nonNull)
+                        .distinct()
+                        .sorted()
+                        .toList())
+                .sentAt(LocalDateTime.now())
+                .build();
+        try {
+            messagingTemplate.convertAndSendToUser(user.getEmail(), DESTINATION, event);
+        } catch (Exception e) {
+            // A missed push only means the client refreshes later
+            log.warn("Could not push {} new transactions to user {}: {}", added.size(), user.getId(), e.getMessage());
+        }
+    }
+
+    private static TransactionDto mapToDto(Transaction tx, User user) {
+        return TransactionDto.builder()
+                .id(tx.getId())
+                .amount(tx.getAmount())
+                .category(tx.getCategory())
+                .description(tx.getDescription())
+                .date(tx.getDate())
+                .type(tx.getType() != null ? tx.getType().name() : null)
+                .currency(tx.getCurrency())
+                .userId(user.getId())
+                .build();
+    }
+}
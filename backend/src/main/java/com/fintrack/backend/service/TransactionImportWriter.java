@@ -0,0 +1,65 @@
+package com.fintrack.backend.service;
+
+import com.fintrack.backend.dto.ImportResultDto;
+import com.fintrack.backend.entity.Transaction;
+import com.fintrack.backend.repository.TransactionBulkRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects parsed import rows and writes every {@code batchSize} of them with one bulk
+ * INSERT, so an import holds at most one chunk in memory whatever the file size. Chunks
+ * join the caller's transaction and commit together. Rows that could not be parsed are
+ * counted and reported by row number rather than dropped.
+ */
+class TransactionImportWriter {
+
+    private final TransactionBulkRepository transactionBulkRepository;
+    private final int batchSize;
+    private final int maxErrors;
+    private final List<Transaction> chunk;
+    private final List<ImportResultDto.RowError> errors = new ArrayList<>();
+    private long imported;
+    private long failed;
+
+    TransactionImportWriter(TransactionBulkRepository transactionBulkRepository, int batchSize, int maxErrors) {
+        this.transactionBulkRepository = transactionBulkRepository;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxErrors = maxErrors;
+        this.chunk = new ArrayList<>(this.batchSize);
+    }
+
+    void add(Transaction transaction) {
+        chunk.add(transaction);
+        if (chunk.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    void reject(long row, String message) {
+        failed++;
+        if (errors.size() < maxErrors) {
+            errors.add(new ImportResultDto.RowError(row, message));
+        }
+    }
+
+    /**
+     * Write what is left and return the totals.
+     */
+    ImportResultDto finish() {
+        flush();
+        return ImportResultDto.builder()
+                .imported(imported)
+                .failed(failed)
+                .errors(errors)
+                .build();
+    }
+
+    private void flush() {
+        if (!chunk.isEmpty()) {
+            imported += transactionBulkRepository.insertAll(chunk);
+            chunk.clear();
+        }
+    }
+}
@@ -29,6 +29,7 @@ public class TransactionService {
     private final TransactionRepository transactionRepository;
     private final UserRepository userRepository;
     private final NotificationRepository notificationRepository;
+    private final UserCategoryRuleService userCategoryRuleService;
 
     @Transactional
     public Transaction saveTransaction(Long userId, Transaction transaction) {
@@ -99,6 +100,15 @@ public class TransactionService {
 
         User user = existing.getUser();
 
+        // A manual category change becomes a rule for this user's future transactions
+        if (updatedTransaction.getCategory() != null
+                && !updatedTransaction.getCategory().equals(existing.getCategory())) {
+            String description = updatedTransaction.getDescription() != null
+                    ? updatedTransaction.getDescription()
+                    : existing.getDescription();
+            userCategoryRuleService.recordOverride(user, description, updatedTransaction.getCategory());
+        }
+
         // Update fields
         existing.setAmount(updatedTransaction.getAmount());
         existing.setCategory(updatedTransaction.getCategory());
@@ -0,0 +1,169 @@
+package com.fintrack.backend.service;
+
+import com.fintrack.backend.entity.MerchantCategoryMap;
+import com.fintrack.backend.entity.User;
+import com.fintrack.backend.entity.UserCategoryRule;
+import com.fintrack.backend.repository.UserCategoryRuleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Per-user merchant rules learned from manual re-categorization. Each user's rules are
+ * compiled into their own {@link MerchantMatcher}, consulted before the global keyword
+ * index, so lookups stay linear in the description length.
+ *
+ * Overlays are built on first use and kept in a bounded LRU, so only recently active users
+ * occupy memory. A user's overlay is dropped when their rules change here, and expires after
+ * {@code categorization.user-rules.ttl-minutes} to pick up changes made on other nodes.
+ */
+@Service
+@Slf4j
+public class UserCategoryRuleService {
+
+    // Same floor as self-learned keywords: rules are substring matches, so "ip" or "kz"
+    // left over from a mostly-noise description would capture unrelated merchants
+    static final int MIN_KEYWORD_LENGTH = 3;
+
+    private final UserCategoryRuleRepository userCategoryRuleRepository;
+    private final int maxUsers;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+
+    // Access-ordered: iteration starts at the least recently used user
+    private final LinkedHashMap<Long, Overlay> overlays = new LinkedHashMap<>(64, 0.75f, true);
+    private long invalidations;
+
+    @Autowired
+    public UserCategoryRuleService(UserCategoryRuleRepository userCategoryRuleRepository,
+            @Value("${categorization.user-rules.max-users:1000}") int maxUsers,
+            @Value("${categorization.user-rules.ttl-minutes:30}") long ttlMinutes) {
+        this(userCategoryRuleRepository, maxUsers, ttlMinutes * 60_000, System::currentTimeMillis);
+    }
+
+    UserCategoryRuleService(UserCategoryRuleRepository userCategoryRuleRepository, int maxUsers, long ttlMillis,
+            LongSupplier clock) {
+        this.userCategoryRuleRepository = userCategoryRuleRepository;
+        this.maxUsers = Math.max(1, maxUsers);
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Remember that the user filed this merchant under {@code category}. Descriptions that
+     * normalize to fewer than {@link #MIN_KEYWORD_LENGTH} characters and "Uncategorized"/"Other"
+     * are ignored.
+     */
+    public void recordOverride(User user, String description, String category) {
+        String keyword = MerchantNormalizer.normalize(description);
+        if (user == null || keyword.length() < MIN_KEYWORD_LENGTH || CategorizationCache.isNegative(category)) {
+            return;
+        }
+        UserCategoryRule rule = userCategoryRuleRepository.findByUserIdAndKeyword(user.getId(), keyword)
+                .orElseGet(() -> UserCategoryRule.builder().user(user).keyword(keyword).build());
+        if (category.equals(rule.getCategory())) {
+            return;
+        }
+        rule.setCategory(category);
+        rule.setUpdatedAt(LocalDateTime.now());
+        userCategoryRuleRepository.save(rule);
+        log.info("User {} rule: '{}' → '{}'", user.getId(), keyword, category);
+
+        Long userId = user.getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(userId);
+                }
+            });
+        } else {
+            invalidate(userId);
+        }
+    }
+
+    /**
+     * Returns the user's own category for this description, or null when none of their rules apply.
+     */
+    public String match(Long userId, String description) {
+        if (userId == null || description == null) {
+            return null;
+        }
+        return overlay(userId).match(description);
+    }
+
+    /**
+     * Compile the rules of the given users in one query, bypassing the overlay cache. For
+     * background jobs that touch many users once, so they neither evict active users'
+     * overlays nor keep their own. Users without rules are absent from the result.
+     */
+    public Map<Long, MerchantMatcher> loadUncached(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, List<UserCategoryRule>> byUser = userCategoryRuleRepository.findByUserIdIn(userIds).stream()
+                .collect(Collectors.groupingBy(r -> r.getUser().getId()));
+        Map<Long, MerchantMatcher> matchers = new HashMap<>(byUser.size() * 2);
+        byUser.forEach((userId, rules) -> matchers.put(userId, compile(rules)));
+        return matchers;
+    }
+
+    public synchronized void invalidate(Long userId) {
+        overlays.remove(userId);
+        invalidations++;
+    }
+
+    public synchronized int cachedUsers() {
+        return overlays.size();
+    }
+
+    MerchantMatcher overlay(Long userId) {
+        long seenInvalidations;
+        synchronized (this) {
+            Overlay cached = overlays.get(userId);
+            if (cached != null && cached.expiresAt() > clock.getAsLong()) {
+                return cached.matcher();
+            }
+            seenInvalidations = invalidations;
+        }
+
+        // Build outside the lock; a rule change meanwhile means this copy may be stale, so don't keep it
+        MerchantMatcher matcher = compile(userCategoryRuleRepository.findByUserId(userId));
+
+        synchronized (this) {
+            if (seenInvalidations == invalidations) {
+                overlays.put(userId, new Overlay(matcher, clock.getAsLong() + ttlMillis));
+                Iterator<Map.Entry<Long, Overlay>> it = overlays.entrySet().iterator();
+                while (overlays.size() > maxUsers && it.hasNext()) {
+                    it.next();
+                    it.remove();
+                }
+            }
+        }
+        return matcher;
+    }
+
+    private static MerchantMatcher compile(List<UserCategoryRule> rules) {
+        return MerchantMatcher.build(rules.stream()
+                .filter(r -> r.getKeyword() != null && r.getKeyword().length() >= MIN_KEYWORD_LENGTH)
+                .map(r -> MerchantCategoryMap.builder().id(r.getId()).keyword(r.getKeyword())
+                        .category(r.getCategory()).build())
+                .toList());
+    }
+
+    private record Overlay(MerchantMatcher matcher, long expiresAt) {
+    }
+}
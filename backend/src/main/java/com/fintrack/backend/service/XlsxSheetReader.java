@@ -0,0 +1,120 @@
+package com.fintrack.backend.service;
+
+import org.apache.poi.UnsupportedFileFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Reads the first sheet of an xlsx file with POI's SAX event API, handing each row over as
+ * soon as its closing tag is parsed. Only the shared strings table and the current row are
+ * held in memory, unlike {@code WorkbookFactory}, which builds the whole workbook.
+ *
+ * Values are passed on raw rather than as Excel displays them: numbers in plain decimal
+ * notation and date-formatted numbers as ISO {@code LocalDateTime} strings.
+ */
+final class XlsxSheetReader {
+
+    private XlsxSheetReader() {
+    }
+
+    @FunctionalInterface
+    interface RowHandler {
+        /**
+         * @param rowNum 0-based row index in the sheet
+         * @param cells  cell values by column, null where a cell is empty; reused between rows
+         */
+        void row(int rowNum, String[] cells);
+    }
+
+    /**
+     * Parse the file's first sheet, passing the first {@code columns} columns of every
+     * non-empty row to the handler.
+     */
+    static void read(File xlsx, int columns, RowHandler handler) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(xlsx, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+            XMLReader parser = XMLHelper.newXMLReader();
+            parser.setContentHandler(new XSSFSheetXMLHandler(reader.getStylesTable(),
+                    new ReadOnlySharedStringsTable(pkg), new RowCollector(columns, handler), new RawFormatter(),
+                    false));
+            try (InputStream sheet = sheets.next()) {
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (OpenXML4JException | UnsupportedFileFormatException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Could not read xlsx file: " + e.getMessage(), e);
+        }
+    }
+
+    private static final class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final String[] cells;
+        private final RowHandler handler;
+        private boolean hasValues;
+        private int nextColumn;
+
+        RowCollector(int columns, RowHandler handler) {
+            this.cells = new String[columns];
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            Arrays.fill(cells, null);
+            hasValues = false;
+            nextColumn = 0;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (hasValues) {
+                handler.row(rowNum, cells);
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            // The reference is optional in the file format; without it cells are consecutive
+            int column = cellReference != null ? new CellReference(cellReference).getCol() : nextColumn;
+            nextColumn = column + 1;
+            if (column < cells.length && formattedValue != null && !formattedValue.isBlank()) {
+                cells[column] = formattedValue;
+                hasValues = true;
+            }
+        }
+    }
+
+    private static final class RawFormatter extends DataFormatter {
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                return DateUtil.getLocalDateTime(value).toString();
+            }
+            return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.fintrack.backend.repository;
+
+import com.fintrack.backend.entity.RecategorizationJob;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+class RecategorizationJobRepositoryTest {
+
+    private static final RecategorizationJob.Status RUNNING = RecategorizationJob.Status.RUNNING;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private RecategorizationJobRepository recategorizationJobRepository;
+
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+
+    private Long persist(RecategorizationJob.Status status, LocalDateTime heartbeatAt) {
+        return entityManager.persistAndFlush(RecategorizationJob.builder()
+                .status(status).heartbeatAt(heartbeatAt).build()).getId();
+    }
+
+    @Test
+    void claim_onlyOneNodeWinsAQueuedJob() {
+        Long id = persist(RecategorizationJob.Status.PENDING, null);
+
+        assertEquals(1, recategorizationJobRepository.claim(id, RUNNING, now, now.minusMinutes(15)));
+        assertEquals(0, recategorizationJobRepository.claim(id, RUNNING, now.plusSeconds(1), now.minusMinutes(15)));
+    }
+
+    @Test
+    void claim_takesOverOnlyStaleRunningJobs() {
+        Long live = persist(RUNNING, now.minusMinutes(1));
+        Long stale = persist(RUNNING, now.minusHours(1));
+        Long done = persist(RecategorizationJob.Status.COMPLETED, now.minusHours(1));
+
+        assertEquals(0, recategorizationJobRepository.claim(live, RUNNING, now, now.minusMinutes(15)));
+        assertEquals(1, recategorizationJobRepository.claim(stale, RUNNING, now, now.minusMinutes(15)));
+        assertEquals(0, recategorizationJobRepository.claim(done, RUNNING, now, now.minusMinutes(15)));
+    }
+
+    @Test
+    void saveProgress_ignoresTheFormerOwnersLease() {
+        Long id = persist(RUNNING, now.minusHours(1));
+        LocalDateTime oldLease = now.minusHours(1);
+        recategorizationJobRepository.claim(id, RUNNING, now, now.minusMinutes(15));
+
+        assertEquals(0, recategorizationJobRepository.saveProgress(id, 10L, 10L, 0L, oldLease, now));
+        assertEquals(0, recategorizationJobRepository.finish(id, RecategorizationJob.Status.COMPLETED, null,
+                oldLease, now));
+        assertEquals(1, recategorizationJobRepository.saveProgress(id, 10L, 10L, 0L, now, now.plusSeconds(1)));
+    }
+
+    @Test
+    void saveProgress_stopsOnceCancelled() {
+        Long id = persist(RecategorizationJob.Status.PENDING, null);
+        recategorizationJobRepository.claim(id, RUNNING, now, now.minusMinutes(15));
+
+        assertEquals(1, recategorizationJobRepository.cancel(id, RecategorizationJob.Status.CANCELLED, now));
+        assertEquals(0, recategorizationJobRepository.saveProgress(id, 10L, 10L, 0L, now, now.plusSeconds(1)));
+    }
+}
@@ -0,0 +1,63 @@
+package com.fintrack.backend.repository;
+
+import com.fintrack.backend.entity.SyncJob;
+import com.fintrack.backend.entity.SyncRun;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+class SyncJobRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private SyncJobRepository syncJobRepository;
+
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+
+    private SyncJob running(String connectionId, LocalDateTime lockedAt) {
+        return entityManager.persistAndFlush(SyncJob.builder().connectionId(connectionId).customerId("cust1")
+                .status(SyncJob.Status.RUNNING).lockedAt(lockedAt).build());
+    }
+
+    private void heartbeat(String connectionId, LocalDateTime at) {
+        entityManager.persistAndFlush(SyncRun.builder().connectionId(connectionId).customerId("cust1")
+                .heartbeatAt(at).build());
+    }
+
+    private SyncJob.Status status(SyncJob job) {
+        entityManager.clear();
+        return syncJobRepository.findById(job.getId()).orElseThrow().getStatus();
+    }
+
+    @Test
+    void requeueStale_keepsJobsWhoseSyncIsStillCheckpointing() {
+        SyncJob longSync = running("conn1", now.minusHours(2));
+        heartbeat("conn1", now.minusMinutes(1));
+        SyncJob dead = running("conn2", now.minusHours(2));
+        heartbeat("conn2", now.minusHours(1));
+
+        assertEquals(1, syncJobRepository.requeueStale(now.minusMinutes(30), now));
+
+        assertEquals(SyncJob.Status.RUNNING, status(longSync));
+        assertEquals(SyncJob.Status.PENDING, status(dead));
+    }
+
+    @Test
+    void complete_ignoresAWorkerWhoseClaimWasReplaced() {
+        LocalDateTime firstClaim = now.minusHours(1);
+        SyncJob job = running("conn1", now);
+
+        assertEquals(0, syncJobRepository.complete(job.getId(), firstClaim, now));
+        assertEquals(1, syncJobRepository.complete(job.getId(), now, now));
+        assertEquals(SyncJob.Status.DONE, status(job));
+    }
+}
@@ -0,0 +1,131 @@
+package com.fintrack.backend.repository;
+
+import com.fintrack.backend.entity.Transaction;
+import com.fintrack.backend.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Runs against PostgreSQL: H2 cannot parse {@code ON CONFLICT (...) DO NOTHING RETURNING}.
+ * Skipped where no Docker daemon is available.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TransactionBulkRepository.class)
+@Testcontainers(disabledWithoutDocker = true)
+class TransactionBulkRepositoryTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driverClassName", POSTGRES::getDriverClassName);
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TransactionBulkRepository transactionBulkRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("bulk");
+        user.setEmail("bulk@example.com");
+        user.setPassword("x");
+        user = entityManager.persistAndFlush(user);
+    }
+
+    private Transaction row(String description, String externalId) {
+        return Transaction.builder()
+                .user(user)
+                .amount(new BigDecimal("10.00"))
+                .date(LocalDateTime.of(2025, 1, 15, 10, 0))
+                .description(description)
+                .category("Food")
+                .currency("KZT")
+                .externalId(externalId)
+                .type(Transaction.TransactionType.EXPENSE)
+                .build();
+    }
+
+    private long count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions WHERE user_id = ?", Long.class,
+                user.getId());
+    }
+
+    @Test
+    void insertIgnoringDuplicates_skipsStoredExternalIdsAndReturnsIdsOfInsertedRows() {
+        transactionBulkRepository.insertIgnoringDuplicates(List.of(row("STARBUCKS 01", "se-1")));
+
+        List<Transaction> inserted = transactionBulkRepository.insertIgnoringDuplicates(List.of(
+                row("STARBUCKS 01 again", "se-1"),
+                row("UBER TRIP", "se-2"),
+                row("UBER TRIP twice in one page", "se-2"),
+                row("MAGNUM", "se-3")));
+
+        assertEquals(List.of("se-2", "se-3"), inserted.stream().map(Transaction::getExternalId).sorted().toList());
+        for (Transaction t : inserted) {
+            assertNotNull(t.getId());
+            assertEquals(t.getDescription(), jdbcTemplate.queryForObject(
+                    "SELECT description FROM transactions WHERE id = ?", String.class, t.getId()));
+        }
+        assertEquals(3, count());
+        assertEquals("STARBUCKS 01", jdbcTemplate.queryForObject(
+                "SELECT description FROM transactions WHERE external_id = 'se-1'", String.class));
+    }
+
+    @Test
+    void insertIgnoringDuplicates_allDuplicatesInsertsNothing() {
+        transactionBulkRepository.insertIgnoringDuplicates(List.of(row("STARBUCKS 01", "se-1")));
+
+        assertEquals(List.of(), transactionBulkRepository.insertIgnoringDuplicates(
+                List.of(row("STARBUCKS 01", "se-1"))));
+        assertEquals(1, count());
+    }
+
+    @Test
+    void insertAll_writesRowsAcrossMultiRowStatements() {
+        // More than one statement's worth, so the second chunk is a partial one
+        List<Transaction> rows = new ArrayList<>();
+        for (int i = 0; i < 1_250; i++) {
+            rows.add(row("IMPORTED " + i, null));
+        }
+
+        assertEquals(1_250, transactionBulkRepository.insertAll(rows));
+        assertEquals(1_250, count());
+        assertEquals(1L, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transactions WHERE description = 'IMPORTED 1249' AND type = 'EXPENSE'",
+                Long.class));
+    }
+}
@@ -0,0 +1,72 @@
+package com.fintrack.backend.repository;
+
+import com.fintrack.backend.entity.Transaction;
+import com.fintrack.backend.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+class TransactionRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("recat");
+        user.setEmail("recat@example.com");
+        user.setPassword("x");
+        user = entityManager.persist(user);
+    }
+
+    private Transaction persist(String description, String category, String externalId) {
+        return entityManager.persist(Transaction.builder()
+                .user(user)
+                .amount(new BigDecimal("10.00"))
+                .date(LocalDateTime.of(2025, 1, 15, 10, 0))
+                .description(description)
+                .category(category)
+                .externalId(externalId)
+                .type(Transaction.TransactionType.EXPENSE)
+                .build());
+    }
+
+    private List<String> recategorizable(String previousCategory) {
+        return transactionRepository.findRecategorizableRowsAfter(0L, previousCategory, PageRequest.of(0, 100))
+                .stream().map(TransactionRepository.CategoryRow::getDescription).toList();
+    }
+
+    @Test
+    void findRecategorizableRowsAfter_leavesManualRowsOutOfRescans() {
+        persist("STARBUCKS 01", "Food", "se-1");
+        persist("STARBUCKS 02", "Work", null);
+
+        assertEquals(List.of("STARBUCKS 01"), recategorizable(null));
+        assertEquals(1, transactionRepository.countRecategorizable(null));
+    }
+
+    @Test
+    void findRecategorizableRowsAfter_includesManualRowsCarryingTheOldMappingCategory() {
+        persist("STARBUCKS 01", "Food", "se-1");
+        persist("STARBUCKS 02", "Coffee", null);
+        persist("STARBUCKS 03", "Work", null);
+
+        assertEquals(List.of("STARBUCKS 01", "STARBUCKS 02"), recategorizable("Coffee"));
+    }
+}
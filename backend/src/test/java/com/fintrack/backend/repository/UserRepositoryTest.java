@@ -0,0 +1,36 @@
+package com.fintrack.backend.repository;
+
+import com.fintrack.backend.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+class UserRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void adjustBalance_addsToTheStoredBalance() {
+        User user = new User();
+        user.setUsername("balance");
+        user.setEmail("balance@example.com");
+        user.setPassword("x");
+        user.setBalance(new BigDecimal("100.00"));
+        Long id = entityManager.persistAndFlush(user).getId();
+
+        userRepository.adjustBalance(id, new BigDecimal("-30.00"));
+        userRepository.adjustBalance(id, new BigDecimal("5.50"));
+
+        assertEquals(0, new BigDecimal("75.50").compareTo(userRepository.findBalanceById(id)));
+    }
+}
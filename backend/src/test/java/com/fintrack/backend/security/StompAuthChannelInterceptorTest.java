@@ -0,0 +1,90 @@
+package com.fintrack.backend.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StompAuthChannelInterceptorTest {
+
+    @Mock
+    private JwtUtils jwtUtils;
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @InjectMocks
+    private StompAuthChannelInterceptor interceptor;
+
+    private final MessageChannel channel = mock(MessageChannel.class);
+    private final UserDetails alice = new User("alice@example.com", "x", List.of());
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(jwtUtils.extractUsername("good")).thenReturn("alice@example.com");
+        when(userDetailsService.loadUserByUsername("alice@example.com")).thenReturn(alice);
+        when(jwtUtils.isTokenValid("good", alice)).thenReturn(true);
+    }
+
+    private static Message<byte[]> frame(StompCommand command, String authorization) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        if (authorization != null) {
+            accessor.addNativeHeader("Authorization", authorization);
+        }
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    @Test
+    void connectWithValidTokenSetsSessionUser() {
+        Message<byte[]> connect = frame(StompCommand.CONNECT, "Bearer good");
+
+        Message<?> result = interceptor.preSend(connect, channel);
+
+        UsernamePasswordAuthenticationToken user = (UsernamePasswordAuthenticationToken)
+                StompHeaderAccessor.wrap(result).getUser();
+        assertEquals("alice@example.com", user.getName());
+        assertSame(alice, user.getPrincipal());
+    }
+
+    @Test
+    void connectWithoutTokenIsRejected() {
+        assertThrows(AuthenticationCredentialsNotFoundException.class,
+                () -> interceptor.preSend(frame(StompCommand.CONNECT, null), channel));
+    }
+
+    @Test
+    void connectWithInvalidTokenIsRejected() {
+        when(jwtUtils.extractUsername("forged")).thenThrow(new io.jsonwebtoken.security.SignatureException("bad"));
+
+        assertThrows(BadCredentialsException.class,
+                () -> interceptor.preSend(frame(StompCommand.CONNECT, "Bearer forged"), channel));
+    }
+
+    @Test
+    void subscribeOnUnauthenticatedSessionIsRejected() {
+        assertThrows(AuthenticationCredentialsNotFoundException.class,
+                () -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, null), channel));
+    }
+}
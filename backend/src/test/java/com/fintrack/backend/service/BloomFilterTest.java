@@ -0,0 +1,45 @@
+package com.fintrack.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    @Test
+    void addedValuesAreAlwaysReported() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(String.valueOf(1_000_000 + i));
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain(String.valueOf(1_000_000 + i)));
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(String.valueOf(1_000_000 + i));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(String.valueOf(5_000_000 + i))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void saturatesPastExpectedInsertions() {
+        BloomFilter filter = new BloomFilter(2, 0.01);
+        filter.add("a");
+        filter.add("b");
+        assertFalse(filter.isSaturated());
+        filter.add("c");
+        assertTrue(filter.isSaturated());
+    }
+}
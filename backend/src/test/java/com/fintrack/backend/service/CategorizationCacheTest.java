@@ -0,0 +1,57 @@
+package com.fintrack.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CategorizationCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    private final CategorizationCache cache = new CategorizationCache(2, 10_000, 1_000, now::get);
+
+    @Test
+    void key_normalizesCaseAndWhitespace() {
+        assertEquals("yandex go", CategorizationCache.key("  YANDEX   Go "));
+    }
+
+    @Test
+    void get_returnsCachedCategoryAndCountsHits() {
+        cache.put("yandex go", "Transport");
+
+        assertEquals("Transport", cache.get("yandex go"));
+        assertNull(cache.get("kaspi"));
+
+        CategorizationCache.Stats stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(0.5, stats.hitRate());
+    }
+
+    @Test
+    void negativeEntries_expireOnTheirOwnTtl() {
+        cache.put("yandex go", "Transport");
+        cache.put("unknown shop", "Other");
+
+        now.addAndGet(1_500);
+
+        assertNull(cache.get("unknown shop"));
+        assertEquals("Transport", cache.get("yandex go"));
+        assertEquals(1, cache.stats().expirations());
+    }
+
+    @Test
+    void put_evictsLeastRecentlyUsedBeyondMaxSize() {
+        cache.put("a", "Food");
+        cache.put("b", "Food");
+        cache.get("a");
+        cache.put("c", "Food");
+
+        assertNull(cache.get("b"));
+        assertEquals("Food", cache.get("a"));
+        assertEquals(1, cache.stats().evictions());
+        assertEquals(2, cache.stats().size());
+    }
+}
@@ -0,0 +1,165 @@
+package com.fintrack.backend.service;
+
+import com.fintrack.backend.dto.GeminiDTOs;
+import com.fintrack.backend.entity.MerchantCategoryMap;
+import com.fintrack.backend.repository.MerchantCategoryMapRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CategorizationServiceTest {
+
+    @Mock
+    private MerchantCategoryMapRepository merchantCategoryMapRepository;
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @Mock
+    private MerchantIndexService merchantIndexService;
+
+    @Mock
+    private MerchantLearningQueue merchantLearningQueue;
+
+    @Mock
+    private MerchantClassifierService merchantClassifierService;
+
+    @Mock
+    private UserCategoryRuleService userCategoryRuleService;
+
+    @Spy
+    private CategorizationCache categorizationCache = new CategorizationCache(100, 60_000, 60_000,
+            System::currentTimeMillis);
+
+    @InjectMocks
+    private CategorizationService categorizationService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        List<MerchantCategoryMap> mappings = List.of(
+                MerchantCategoryMap.builder().id(1L).keyword("netflix").category("Entertainment").build(),
+                MerchantCategoryMap.builder().id(2L).keyword("starbucks").category("Food").build());
+        when(merchantIndexService.snapshot()).thenReturn(new MerchantIndexService.Snapshot(1, "2:2",
+                MerchantMatcher.build(mappings), MerchantFuzzyIndex.build(mappings), LocalDateTime.now()));
+    }
+
+    private static ResponseEntity<GeminiDTOs.GeminiResponse> geminiReply(String text) {
+        GeminiDTOs.Content content = GeminiDTOs.Content.builder()
+                .parts(List.of(GeminiDTOs.Part.builder().text(text).build()))
+                .build();
+        return new ResponseEntity<>(new GeminiDTOs.GeminiResponse(List.of(new GeminiDTOs.Candidate(content))),
+                HttpStatus.OK);
+    }
+
+    @Test
+    void categorizeAll_sendsDeduplicatedMissesInOnePrompt() {
+        when(restTemplate.postForEntity(anyString(), any(HttpEntity.class), eq(GeminiDTOs.GeminiResponse.class)))
+                .thenReturn(geminiReply("```json\n[{\"index\":1,\"category\":\"Transport\",\"confidence\":0.5},"
+                        + "{\"index\":2,\"category\":\"Food\",\"confidence\":0.6}]\n```"));
+
+        Map<String, String> result = categorizationService.categorizeAll(
+                List.of("YANDEX GO", "NETFLIX.COM", "MAGNUM", "YANDEX GO"));
+
+        assertEquals("Transport", result.get("YANDEX GO"));
+        assertEquals("Entertainment", result.get("NETFLIX.COM"));
+        assertEquals("Food", result.get("MAGNUM"));
+        verify(restTemplate, times(1)).postForEntity(anyString(), any(HttpEntity.class),
+                eq(GeminiDTOs.GeminiResponse.class));
+    }
+
+    @Test
+    void categorizeAll_allLocalHits_skipsAI() {
+        Map<String, String> result = categorizationService.categorizeAll(List.of("Netflix subscription"));
+
+        assertEquals("Entertainment", result.get("Netflix subscription"));
+        verify(restTemplate, never()).postForEntity(anyString(), any(HttpEntity.class),
+                eq(GeminiDTOs.GeminiResponse.class));
+    }
+
+    @Test
+    void categorizeAll_aiFailure_fallsBackToUncategorized() {
+        when(restTemplate.postForEntity(anyString(), any(HttpEntity.class), eq(GeminiDTOs.GeminiResponse.class)))
+                .thenThrow(new RuntimeException("quota exceeded"));
+
+        Map<String, String> result = categorizationService.categorizeAll(List.of("MAGNUM"));
+
+        assertEquals("Uncategorized", result.get("MAGNUM"));
+    }
+
+    @Test
+    void categorize_failedMerchantIsNegativelyCached() {
+        when(restTemplate.postForEntity(anyString(), any(HttpEntity.class), eq(GeminiDTOs.GeminiResponse.class)))
+                .thenThrow(new RuntimeException("quota exceeded"));
+
+        assertEquals("Uncategorized", categorizationService.categorize("MAGNUM  CASH&CARRY"));
+        assertEquals("Uncategorized", categorizationService.categorize("magnum cash&carry"));
+        categorizationService.categorizeAll(List.of("Magnum Cash&Carry"));
+
+        verify(restTemplate, times(1)).postForEntity(anyString(), any(HttpEntity.class),
+                eq(GeminiDTOs.GeminiResponse.class));
+        assertEquals(2, categorizationService.cacheStats().negativeHits());
+    }
+
+    @Test
+    void categorizeAll_highConfidenceAnswerIsQueuedNotWritten() {
+        when(restTemplate.postForEntity(anyString(), any(HttpEntity.class), eq(GeminiDTOs.GeminiResponse.class)))
+                .thenReturn(geminiReply("[{\"index\":1,\"category\":\"Food\",\"confidence\":0.97}]"));
+
+        categorizationService.categorizeAll(List.of("MAGNUM CASH&CARRY 12.03.2024 ALMATY"));
+
+        verify(merchantLearningQueue).enqueue("magnum cash carry", "Food");
+        verify(merchantCategoryMapRepository, never()).save(any());
+        verify(merchantCategoryMapRepository, never()).existsByKeywordIgnoreCase(anyString());
+    }
+
+    @Test
+    void categorizeAll_confidentClassifierAnswerSkipsAI() {
+        when(merchantClassifierService.classify("SMALL SUPERMARKET ALMATY")).thenReturn("Food");
+
+        Map<String, String> result = categorizationService.categorizeAll(List.of("SMALL SUPERMARKET ALMATY"));
+
+        assertEquals("Food", result.get("SMALL SUPERMARKET ALMATY"));
+        verify(restTemplate, never()).postForEntity(anyString(), any(HttpEntity.class),
+                eq(GeminiDTOs.GeminiResponse.class));
+    }
+
+    @Test
+    void categorize_misspelledMerchantMatchesFuzzilyWithoutAI() {
+        assertEquals("Food", categorizationService.categorize("STARBUKS COFFEE 12.03 ALMATY"));
+
+        verify(merchantClassifierService, never()).classify(anyString());
+        verify(restTemplate, never()).postForEntity(anyString(), any(HttpEntity.class),
+                eq(GeminiDTOs.GeminiResponse.class));
+    }
+
+    @Test
+    void categorizeAll_userRuleOverridesGlobalMap() {
+        when(userCategoryRuleService.match(5L, "NETFLIX.COM")).thenReturn("Work");
+
+        Map<String, String> result = categorizationService.categorizeAll(5L, List.of("NETFLIX.COM", "Netflix family"));
+
+        assertEquals("Work", result.get("NETFLIX.COM"));
+        assertEquals("Entertainment", result.get("Netflix family"));
+    }
+}
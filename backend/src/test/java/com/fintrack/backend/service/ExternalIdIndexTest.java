@@ -0,0 +1,90 @@
+package com.fintrack.backend.service;
+
+import com.fintrack.backend.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ExternalIdIndexTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    private ExternalIdIndex index;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        index = new ExternalIdIndex(transactionRepository, 2, 0.001);
+        when(transactionRepository.findExistingExternalIds(anyCollection()))
+                .thenAnswer(inv -> ((Collection<String>) inv.getArgument(0)).stream()
+                        .filter(id -> id.startsWith("old"))
+                        .toList());
+    }
+
+    @Test
+    void onlyPossibleHitsAreVerified() {
+        when(transactionRepository.findExternalIdsByUserId(1L)).thenReturn(List.of("old1", "old2"));
+
+        Set<String> existing = index.findExisting(1L, List.of("old1", "new1", "new2", "new3"));
+
+        assertEquals(Set.of("old1"), existing);
+        ArgumentCaptor<Collection<String>> queried = ArgumentCaptor.forClass(Collection.class);
+        verify(transactionRepository).findExistingExternalIds(queried.capture());
+        assertEquals(List.of("old1"), List.copyOf(queried.getValue()));
+    }
+
+    @Test
+    void allNewPageSkipsTheDatabase() {
+        when(transactionRepository.findExternalIdsByUserId(1L)).thenReturn(List.of("old1"));
+
+        assertTrue(index.findExisting(1L, List.of("new1", "new2")).isEmpty());
+
+        verify(transactionRepository, never()).findExistingExternalIds(anyCollection());
+    }
+
+    @Test
+    void filterIsBuiltOnceAndExtendedOnInsert() {
+        when(transactionRepository.findExternalIdsByUserId(1L)).thenReturn(List.of());
+        index.findExisting(1L, List.of("new1"));
+
+        index.recordInserted(1L, List.of("new1"));
+        index.findExisting(1L, List.of("new1"));
+
+        verify(transactionRepository, times(1)).findExternalIdsByUserId(1L);
+        verify(transactionRepository, times(1)).findExistingExternalIds(List.of("new1"));
+    }
+
+    @Test
+    void leastRecentlyUsedUserIsEvicted() {
+        index.findExisting(1L, List.of("a"));
+        index.findExisting(2L, List.of("a"));
+        index.findExisting(1L, List.of("a"));
+        index.findExisting(3L, List.of("a"));
+
+        assertEquals(2, index.cachedUsers());
+        index.findExisting(2L, List.of("a"));
+        verify(transactionRepository, times(2)).findExternalIdsByUserId(2L);
+        verify(transactionRepository, times(1)).findExternalIdsByUserId(1L);
+    }
+
+    @Test
+    void unknownUserFallsBackToDatabase() {
+        assertEquals(Set.of("old1"), index.findExisting(null, List.of("old1", "new1")));
+        verify(transactionRepository, never()).findExternalIdsByUserId(null);
+    }
+}
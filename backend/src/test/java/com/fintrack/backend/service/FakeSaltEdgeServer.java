@@ -0,0 +1,192 @@
+package com.fintrack.backend.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process stand-in for the Salt Edge API, for load tests of the sync path. Serves
+ * {@code GET /connections?customer_id=} and paginated {@code GET /transactions?connection_id=&from_id=}
+ * for any customer, with a fixed number of connections of synthetic transactions each.
+ *
+ * Every request can be delayed and can fail with a 503 at a given rate. The time from
+ * receiving a transactions request to writing its last byte is recorded per page.
+ */
+final class FakeSaltEdgeServer implements AutoCloseable {
+
+    private static final String[] MERCHANTS = {
+            "MAGNUM CASH&CARRY", "SMALL", "YANDEX GO", "WOLT", "KASPI.KZ", "STARBUCKS", "NETFLIX.COM",
+            "BEELINE", "EUROPHARMA", "HELIOS AZS", "TECHNODOM", "COFFEE BOOM", "DODO PIZZA", "INDRIVE",
+    };
+
+    // Connection c holds ids c * ID_STRIDE + 1 .. c * ID_STRIDE + transactionsPerConnection
+    private static final long ID_STRIDE = 100_000_000L;
+
+    private final int connections;
+    private final int transactionsPerConnection;
+    private final int pageSize;
+    private final long latencyMillis;
+    private final double errorRate;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final List<Long> pageNanos = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger errors = new AtomicInteger();
+
+    FakeSaltEdgeServer(int connections, int transactionsPerConnection, int pageSize, long latencyMillis,
+            double errorRate) throws IOException {
+        this.connections = connections;
+        this.transactionsPerConnection = transactionsPerConnection;
+        this.pageSize = pageSize;
+        this.latencyMillis = latencyMillis;
+        this.errorRate = errorRate;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.executor = Executors.newFixedThreadPool(32);
+        server.setExecutor(executor);
+        server.createContext("/api/v6/connections", this::connections);
+        server.createContext("/api/v6/transactions", this::transactions);
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/api/v6";
+    }
+
+    int totalTransactions() {
+        return connections * transactionsPerConnection;
+    }
+
+    List<Long> pageNanos() {
+        synchronized (pageNanos) {
+            return new ArrayList<>(pageNanos);
+        }
+    }
+
+    int requests() {
+        return requests.get();
+    }
+
+    int errors() {
+        return errors.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void connections(HttpExchange exchange) throws IOException {
+        if (!admit(exchange)) {
+            return;
+        }
+        String customerId = query(exchange.getRequestURI()).getOrDefault("customer_id", "");
+        StringBuilder json = new StringBuilder("{\"data\":[");
+        for (int c = 1; c <= connections; c++) {
+            json.append(c > 1 ? "," : "")
+                    .append("{\"id\":\"").append(c).append("\",\"customer_id\":\"").append(customerId)
+                    .append("\",\"provider_code\":\"fake_bank\",\"provider_name\":\"Fake Bank\"}");
+        }
+        respond(exchange, 200, json.append("]}").toString());
+    }
+
+    private void transactions(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        if (!admit(exchange)) {
+            return;
+        }
+        Map<String, String> query = query(exchange.getRequestURI());
+        int connection;
+        try {
+            connection = Integer.parseInt(query.getOrDefault("connection_id", ""));
+        } catch (NumberFormatException e) {
+            respond(exchange, 404, "{\"error\":{\"class\":\"ConnectionNotFound\"}}");
+            return;
+        }
+        long first = connection * ID_STRIDE + 1;
+        long last = connection * ID_STRIDE + transactionsPerConnection;
+        long from = query.containsKey("from_id") ? Math.max(first, Long.parseLong(query.get("from_id"))) : first;
+        long to = Math.min(last, from + pageSize - 1);
+
+        StringBuilder json = new StringBuilder(pageSize * 320).append("{\"data\":[");
+        for (long id = from; id <= to; id++) {
+            appendTransaction(json.append(id > from ? "," : ""), id, connection);
+        }
+        json.append("],\"meta\":{\"next_id\":").append(to < last ? "\"" + (to + 1) + "\"" : "null")
+                .append(",\"next_page\":null}}");
+        respond(exchange, 200, json.toString());
+        pageNanos.add(System.nanoTime() - start);
+    }
+
+    private static void appendTransaction(StringBuilder json, long id, int connection) {
+        String merchant = MERCHANTS[(int) (id % MERCHANTS.length)];
+        long days = (id % ID_STRIDE) % 90;
+        json.append("{\"id\":\"").append(id)
+                .append("\",\"mode\":\"normal\",\"status\":\"posted\",\"made_on\":\"")
+                .append(java.time.LocalDate.of(2024, 1, 1).plusDays(days))
+                .append("\",\"amount\":-").append(1 + id % 500).append('.').append(id % 100 < 10 ? "0" : "")
+                .append(id % 100)
+                .append(",\"currency_code\":\"KZT\",\"description\":\"").append(merchant).append(" #").append(id % 997)
+                .append("\",\"category\":\"shopping\",\"duplicated\":false,\"account_id\":\"acc-").append(connection)
+                .append("\",\"created_at\":\"2024-01-01T00:00:00Z\",\"updated_at\":\"2024-01-01T00:00:00Z\"")
+                .append(",\"extra\":{\"merchant_id\":\"m").append(id % 97)
+                .append("\",\"posting_date\":\"2024-01-01\",\"additional\":\"synthetic\"}}");
+    }
+
+    // Applies the configured latency and error rate; false when the request was failed
+    private boolean admit(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            errors.incrementAndGet();
+            respond(exchange, 503, "{\"error\":{\"class\":\"ServiceUnavailable\"}}");
+            return false;
+        }
+        return true;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> query(URI uri) {
+        Map<String, String> params = new HashMap<>();
+        String raw = uri.getRawQuery();
+        if (raw == null) {
+            return params;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(pair.substring(0, eq), pair.substring(eq + 1));
+            }
+        }
+        return params;
+    }
+}
@@ -0,0 +1,87 @@
+package com.fintrack.backend.service;
+
+import com.fintrack.backend.entity.MerchantCategoryMap;
+import com.fintrack.backend.entity.UserCategoryRule;
+import com.fintrack.backend.repository.MerchantCategoryMapRepository;
+import com.fintrack.backend.repository.UserCategoryRuleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+class MerchantClassifierServiceTest {
+
+    @Mock
+    private MerchantCategoryMapRepository merchantCategoryMapRepository;
+
+    @Mock
+    private UserCategoryRuleRepository userCategoryRuleRepository;
+
+    @InjectMocks
+    private MerchantClassifierService merchantClassifierService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(merchantCategoryMapRepository.findAll()).thenReturn(List.of(
+                mapping("magnum", "Food"),
+                mapping("small", "Food"),
+                mapping("yandex taxi", "Transport"),
+                mapping("misc", "Other")));
+        when(userCategoryRuleRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(
+                rule("galmart supermarket", "Food"),
+                rule("small supermarket", "Food"),
+                rule("indrive taxi", "Transport"),
+                rule("unknown", "Uncategorized"))));
+    }
+
+    private static MerchantCategoryMap mapping(String keyword, String category) {
+        return MerchantCategoryMap.builder().keyword(keyword).category(category).build();
+    }
+
+    private static UserCategoryRule rule(String keyword, String category) {
+        return UserCategoryRule.builder().keyword(keyword).category(category).build();
+    }
+
+    @Test
+    void retrain_usesMappingsAndUserRulesButSkipsNegativeLabels() {
+        merchantClassifierService.retrain();
+
+        assertEquals(6, merchantClassifierService.trainedExamples());
+    }
+
+    @Test
+    void retrain_keepsExamplesLearnedWhileItRuns() {
+        merchantClassifierService.retrain();
+        when(merchantCategoryMapRepository.findAll()).thenAnswer(inv -> {
+            // A self-learned mapping is flushed after the retrain read the map
+            merchantClassifierService.learn("qazaq gaz", "Utilities");
+            return List.of(mapping("magnum", "Food"));
+        });
+
+        merchantClassifierService.retrain();
+
+        // magnum, the three usable rules and the example learned mid-retrain
+        assertEquals(5, merchantClassifierService.trainedExamples());
+    }
+
+    @Test
+    void classify_onlyAnswersAboveMinConfidence() {
+        merchantClassifierService.retrain();
+
+        assertEquals("Transport", merchantClassifierService.classify("CITY TAXI"));
+        assertNull(merchantClassifierService.classify("qqq zzz"));
+        assertEquals(1, merchantClassifierService.confidentPredictions());
+        assertEquals(1, merchantClassifierService.uncertainPredictions());
+    }
+}
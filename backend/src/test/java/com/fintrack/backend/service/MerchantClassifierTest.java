@@ -0,0 +1,64 @@
+package com.fintrack.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MerchantClassifierTest {
+
+    private static MerchantClassifier trained() {
+        MerchantClassifier classifier = new MerchantClassifier();
+        classifier.train("Magnum Cash&Carry", "Food");
+        classifier.train("Small supermarket", "Food");
+        classifier.train("Galmart supermarket", "Food");
+        classifier.train("Burger King", "Food");
+        classifier.train("Yandex Taxi", "Transport");
+        classifier.train("inDrive taxi", "Transport");
+        classifier.train("Shell fuel station", "Transport");
+        classifier.train("Netflix", "Entertainment");
+        classifier.train("Kinopark cinema", "Entertainment");
+        return classifier;
+    }
+
+    @Test
+    void classify_unseenMerchantSharingWords() {
+        MerchantClassifier.Prediction prediction = trained().classify("SUPERMARKET ANVAR 12.03.2024 ALMATY");
+
+        assertEquals("Food", prediction.category());
+        assertTrue(prediction.confidence() > 0.5);
+    }
+
+    @Test
+    void classify_picksUpCharacterOverlap() {
+        assertEquals("Transport", trained().classify("CITY TAXI SERVICE").category());
+    }
+
+    @Test
+    void classify_noKnownFeatures_returnsNull() {
+        assertNull(trained().classify("qqq zzz"));
+        assertNull(trained().classify("12.03.2024 4400-43**"));
+    }
+
+    @Test
+    void classify_untrainedOrSingleClass_returnsNull() {
+        MerchantClassifier classifier = new MerchantClassifier();
+        assertNull(classifier.classify("Magnum"));
+
+        classifier.train("Magnum", "Food");
+        assertNull(classifier.classify("Magnum"));
+    }
+
+    @Test
+    void train_incrementalExampleShiftsPrediction() {
+        MerchantClassifier classifier = trained();
+        for (int i = 0; i < 3; i++) {
+            classifier.train("Arbuz market", "Food");
+        }
+
+        assertEquals("Food", classifier.classify("ARBUZ.KZ").category());
+        assertEquals(12, classifier.documents());
+        assertEquals(3, classifier.categories());
+    }
+}
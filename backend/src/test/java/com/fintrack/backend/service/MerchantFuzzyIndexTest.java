@@ -0,0 +1,94 @@
+package com.fintrack.backend.service;
+
+import com.fintrack.backend.entity.MerchantCategoryMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MerchantFuzzyIndexTest {
+
+    private static MerchantCategoryMap map(long id, String keyword, String category) {
+        return MerchantCategoryMap.builder().id(id).keyword(keyword).category(category)
+                .source(MerchantCategoryMap.Source.SEED).build();
+    }
+
+    private final MerchantFuzzyIndex index = MerchantFuzzyIndex.build(List.of(
+            map(1, "starbucks", "Food"),
+            map(2, "mcdonalds", "Food"),
+            map(3, "yandex taxi", "Transport"),
+            map(4, "kfc", "Food"),
+            map(5, "netflix", "Entertainment"),
+            map(6, "water", "Utilities"),
+            map(7, "shell", "Transport")));
+
+    @Test
+    void find_toleratesTyposAndTruncation() {
+        assertEquals("starbucks", index.find("STARBUKS COFFEE ALMATY", 0.8).keyword());
+        assertEquals("mcdonalds", index.find("MCDONALD S 0412", 0.8).keyword());
+        assertEquals("netflix", index.find("NETFILX.COM", 0.8).keyword());
+    }
+
+    @Test
+    void find_matchesMultiWordKeywords() {
+        MerchantFuzzyIndex.Match match = index.find("YANDEX TAKSI 4400-43**", 0.8);
+
+        assertEquals("Transport", match.category());
+        assertTrue(match.similarity() >= 0.8);
+    }
+
+    @Test
+    void find_belowThreshold_returnsNull() {
+        assertNull(index.find("STARBOARD MARINE", 0.8));
+        assertNull(index.find("MAGNUM", 0.8));
+    }
+
+    @Test
+    void find_shortKeywordsAreExactOnly() {
+        assertNull(index.find("KFE", 0.5));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void find_oneEditAwayFromAShortKeywordIsNotAMatch() {
+        assertNull(index.find("LATER BAR", 0.8));
+        assertNull(index.find("SPELL BOOKS", 0.8));
+        assertNull(index.find("SHEL 0412", 0.8));
+    }
+
+    @Test
+    void distance_countsTranspositionAsOneEdit() {
+        assertEquals(1, MerchantFuzzyIndex.distance("netfilx", "netflix", 3));
+        assertEquals(1, MerchantFuzzyIndex.distance("starbuks", "starbucks", 3));
+        assertEquals(2, MerchantFuzzyIndex.distance("abcdef", "xyz", 1));
+    }
+
+    @Test
+    void find_largeIndexStaysFast() {
+        List<MerchantCategoryMap> mappings = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder name = new StringBuilder("shop");
+            for (int n = i; n > 0; n /= 26) {
+                name.append((char) ('a' + n % 26));
+            }
+            mappings.add(map(i, name.toString(), "Shopping"));
+        }
+        mappings.add(map(99_999, "starbucks", "Food"));
+        MerchantFuzzyIndex large = MerchantFuzzyIndex.build(mappings);
+
+        for (int i = 0; i < 200; i++) {
+            large.find("STARBUKS COFFEE ALMATY", 0.8);
+        }
+        long start = System.nanoTime();
+        int runs = 1000;
+        for (int i = 0; i < runs; i++) {
+            assertEquals("Food", large.find("STARBUKS COFFEE ALMATY", 0.8).category());
+        }
+        double micros = (System.nanoTime() - start) / 1000.0 / runs;
+        assertTrue(micros < 1000, "lookup took " + micros + " us");
+    }
+}
@@ -0,0 +1,80 @@
+package com.fintrack.backend.service;
+
+import com.fintrack.backend.entity.MerchantCategoryMap;
+import com.fintrack.backend.repository.MerchantCategoryMapRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MerchantIndexServiceTest {
+
+    @Mock
+    private MerchantCategoryMapRepository merchantCategoryMapRepository;
+
+    @InjectMocks
+    private MerchantIndexService merchantIndexService;
+
+    private final MerchantCategoryMap uber = MerchantCategoryMap.builder()
+            .id(1L).keyword("uber").category("Transport").build();
+    private final MerchantCategoryMap wolt = MerchantCategoryMap.builder()
+            .id(2L).keyword("wolt").category("Food").build();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(merchantCategoryMapRepository.findAll()).thenReturn(List.of(uber));
+        when(merchantCategoryMapRepository.count()).thenReturn(1L);
+        when(merchantCategoryMapRepository.findMaxId()).thenReturn(1L);
+    }
+
+    @Test
+    void matcher_lazilyBuildsFirstSnapshot() {
+        assertEquals("Transport", merchantIndexService.matcher().match("UBER TRIP"));
+        assertEquals(1, merchantIndexService.snapshot().version());
+    }
+
+    @Test
+    void rebuildNow_publishesNewVersion() {
+        merchantIndexService.rebuildNow();
+        when(merchantCategoryMapRepository.findAll()).thenReturn(List.of(uber, wolt));
+
+        MerchantIndexService.Snapshot rebuilt = merchantIndexService.rebuildNow();
+
+        assertEquals(2, rebuilt.version());
+        assertEquals("Food", merchantIndexService.matcher().match("wolt order"));
+    }
+
+    @Test
+    void pollForChanges_rebuildsOnlyWhenFingerprintChanges() {
+        merchantIndexService.rebuildNow();
+
+        merchantIndexService.pollForChanges();
+        verify(merchantCategoryMapRepository, after(200).times(1)).findAll();
+
+        when(merchantCategoryMapRepository.findAll()).thenReturn(List.of(uber, wolt));
+        when(merchantCategoryMapRepository.count()).thenReturn(2L);
+        when(merchantCategoryMapRepository.findMaxId()).thenReturn(2L);
+        merchantIndexService.pollForChanges();
+
+        verify(merchantCategoryMapRepository, timeout(2000).times(2)).findAll();
+    }
+
+    @Test
+    void pollForChanges_skipsBeforeFirstBuild() {
+        merchantIndexService.pollForChanges();
+
+        verify(merchantCategoryMapRepository, never()).count();
+    }
+}
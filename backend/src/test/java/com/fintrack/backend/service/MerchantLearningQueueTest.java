@@ -0,0 +1,72 @@
+package com.fintrack.backend.service;
+
+import com.fintrack.backend.entity.MerchantCategoryMap;
+import com.fintrack.backend.repository.MerchantCategoryMapRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MerchantLearningQueueTest {
+
+    @Mock
+    private MerchantCategoryMapRepository merchantCategoryMapRepository;
+
+    @Mock
+    private MerchantIndexService merchantIndexService;
+
+    @Mock
+    private MerchantClassifierService merchantClassifierService;
+
+    @InjectMocks
+    private MerchantLearningQueue merchantLearningQueue;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_deduplicatesSkipsExistingAndRebuildsOnce() {
+        when(merchantCategoryMapRepository.findByKeywordIn(anyCollection())).thenReturn(List.of(
+                MerchantCategoryMap.builder().id(1L).keyword("wolt").category("Food").build()));
+
+        merchantLearningQueue.enqueue("magnum", "Food");
+        merchantLearningQueue.enqueue("magnum", "Shopping");
+        merchantLearningQueue.enqueue("wolt", "Food");
+        merchantLearningQueue.enqueue("indrive", "Transport");
+
+        int stored = merchantLearningQueue.flush();
+
+        ArgumentCaptor<List<MerchantCategoryMap>> saved = ArgumentCaptor.forClass(List.class);
+        verify(merchantCategoryMapRepository).saveAll(saved.capture());
+        assertEquals(2, stored);
+        assertEquals(List.of("magnum", "indrive"), saved.getValue().stream().map(MerchantCategoryMap::getKeyword).toList());
+        assertEquals("Food", saved.getValue().get(0).getCategory());
+        assertEquals(MerchantCategoryMap.Source.AI_LEARNED, saved.getValue().get(0).getSource());
+        verify(merchantIndexService, times(1)).requestRebuild();
+        verify(merchantClassifierService).learn("magnum", "Food");
+        verify(merchantClassifierService).learn("indrive", "Transport");
+        assertEquals(0, merchantLearningQueue.depth());
+    }
+
+    @Test
+    void flush_emptyQueue_doesNothing() {
+        assertEquals(0, merchantLearningQueue.flush());
+
+        verify(merchantCategoryMapRepository, never()).saveAll(anyCollection());
+        verify(merchantIndexService, never()).requestRebuild();
+    }
+}
@@ -0,0 +1,83 @@
+package com.fintrack.backend.service;
+
+import com.fintrack.backend.entity.MerchantCategoryMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MerchantMatcherTest {
+
+    private static MerchantCategoryMap mapping(long id, String keyword, String category,
+            MerchantCategoryMap.Source source) {
+        return MerchantCategoryMap.builder().id(id).keyword(keyword).category(category).source(source).build();
+    }
+
+    private static MerchantCategoryMap seed(long id, String keyword, String category) {
+        return mapping(id, keyword, category, MerchantCategoryMap.Source.SEED);
+    }
+
+    @Test
+    void match_findsKeywordAnywhereIgnoringCase() {
+        MerchantMatcher matcher = MerchantMatcher.build(List.of(
+                seed(1, "netflix", "Entertainment"),
+                seed(2, "uber", "Transport")));
+
+        assertEquals("Entertainment", matcher.match("NETFLIX.COM 866-579-7172"));
+        assertEquals("Transport", matcher.match("Payment UBER *TRIP"));
+        assertNull(matcher.match("Unknown merchant"));
+    }
+
+    @Test
+    void match_longestKeywordWins() {
+        MerchantMatcher matcher = MerchantMatcher.build(List.of(
+                seed(1, "yandex", "Transport"),
+                seed(2, "yandex eda", "Food"),
+                seed(3, "kaspi", "Shopping")));
+
+        assertEquals("Food", matcher.match("KASPI YANDEX EDA ALMATY"));
+        assertEquals("Transport", matcher.match("YANDEX GO"));
+    }
+
+    @Test
+    void match_equalLengthPrefersEarliestOccurrence() {
+        MerchantMatcher matcher = MerchantMatcher.build(List.of(
+                seed(1, "bolt", "Transport"),
+                seed(2, "wolt", "Food")));
+
+        assertEquals("Food", matcher.match("wolt order via bolt"));
+        assertEquals("Transport", matcher.match("bolt ride, wolt promo"));
+    }
+
+    @Test
+    void match_followsFailureLinksAcrossOverlaps() {
+        MerchantMatcher matcher = MerchantMatcher.build(List.of(
+                seed(1, "she", "A"),
+                seed(2, "hers", "B"),
+                seed(3, "his", "C")));
+
+        assertEquals("B", matcher.match("ushers"));
+        assertEquals("C", matcher.match("xhis"));
+    }
+
+    @Test
+    void build_duplicateKeywordPrefersSeedThenLowestId() {
+        MerchantMatcher matcher = MerchantMatcher.build(List.of(
+                mapping(1, "glovo", "Shopping", MerchantCategoryMap.Source.AI_LEARNED),
+                mapping(3, "GLOVO", "Delivery", MerchantCategoryMap.Source.SEED),
+                mapping(2, "Glovo ", "Food", MerchantCategoryMap.Source.SEED)));
+
+        assertEquals(1, matcher.size());
+        assertEquals("Food", matcher.match("glovo almaty"));
+    }
+
+    @Test
+    void empty_matchesNothing() {
+        assertNull(MerchantMatcher.build(Collections.emptyList()).match("netflix"));
+        assertNull(MerchantMatcher.empty().match("netflix"));
+        assertNull(MerchantMatcher.build(List.of(seed(1, "netflix", "Entertainment"))).match(null));
+    }
+}
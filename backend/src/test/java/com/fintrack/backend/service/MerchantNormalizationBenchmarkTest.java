@@ -0,0 +1,148 @@
+package com.fintrack.backend.service;
+
+import com.fintrack.backend.entity.MerchantCategoryMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Replays a synthetic stream of noisy bank descriptions through the self-learning loop
+ * (match locally, on a miss ask an oracle "AI" and learn a keyword) and compares the
+ * local match rate of raw-string keywords against normalized keywords.
+ */
+class MerchantNormalizationBenchmarkTest {
+
+    private static final String[][] MERCHANTS = {
+            { "MAGNUM CASH&CARRY", "Food" }, { "SMALL", "Food" }, { "GALMART", "Food" },
+            { "MCDONALD'S", "Food" }, { "BURGER KING", "Food" }, { "STARBUCKS", "Food" },
+            { "COFFEE BOOM", "Food" }, { "DODO PIZZA", "Food" }, { "YANDEX GO", "Transport" },
+            { "YANDEX EDA", "Food" }, { "INDRIVE", "Transport" }, { "HELIOS AZS", "Transport" },
+            { "KASPI.KZ", "Shopping" }, { "WILDBERRIES", "Shopping" }, { "OZON", "Shopping" },
+            { "TECHNODOM", "Shopping" }, { "SULPAK", "Shopping" }, { "LC WAIKIKI", "Shopping" },
+            { "NETFLIX.COM", "Entertainment" }, { "SPOTIFY", "Entertainment" }, { "KINOPARK", "Entertainment" },
+            { "STEAM GAMES", "Entertainment" }, { "BEELINE", "Utilities" }, { "KCELL", "Utilities" },
+            { "ALMATY ENERGO SBYT", "Utilities" }, { "EUROPHARMA", "Health" }, { "INVIVO", "Health" },
+            { "SUNKAR APTEKA", "Health" }, { "COURSERA", "Education" }, { "METEOR BOOKS", "Education" },
+    };
+
+    private static final String[] PREFIXES = { "", "", "", "POS PURCHASE ", "SQ *", "PAYPAL *", "Покупка " };
+    private static final String[] CITIES = { "", " ALMATY KZ", " ASTANA", " KZ", " Алматы" };
+
+    private static final int TRANSACTIONS = 5000;
+    private static final int FLUSH_EVERY = 50;
+
+    @Test
+    void normalizedKeywordsMatchFarMoreOftenThanRawKeywords() {
+        List<String[]> corpus = generateCorpus(new Random(42));
+
+        long rawStart = System.nanoTime();
+        Result raw = replayRaw(corpus);
+        long rawMillis = (System.nanoTime() - rawStart) / 1_000_000;
+
+        long normStart = System.nanoTime();
+        Result normalized = replayNormalized(corpus);
+        long normMillis = (System.nanoTime() - normStart) / 1_000_000;
+
+        System.out.printf(Locale.ROOT, "[normalization benchmark] %d transactions, %d merchants%n",
+                TRANSACTIONS, MERCHANTS.length);
+        System.out.printf(Locale.ROOT, "  raw keywords:        match rate %.1f%%, learned %d keywords, %d ms%n",
+                raw.matchRate() * 100, raw.learned(), rawMillis);
+        System.out.printf(Locale.ROOT, "  normalized keywords: match rate %.1f%%, learned %d keywords, %d ms%n",
+                normalized.matchRate() * 100, normalized.learned(), normMillis);
+
+        assertTrue(normalized.matchRate() > raw.matchRate() + 0.5,
+                "normalization should lift the local match rate substantially");
+        assertTrue(normalized.learned() < raw.learned() / 10, "normalization should keep the keyword map small");
+    }
+
+    private static List<String[]> generateCorpus(Random random) {
+        List<String[]> corpus = new ArrayList<>(TRANSACTIONS);
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            String[] merchant = MERCHANTS[random.nextInt(MERCHANTS.length)];
+            String name = merchant[0];
+            if (random.nextBoolean()) {
+                name = name.replace("'", "");
+            }
+            if (random.nextInt(3) == 0) {
+                name = name.toLowerCase(Locale.ROOT);
+            }
+            StringBuilder desc = new StringBuilder()
+                    .append(PREFIXES[random.nextInt(PREFIXES.length)])
+                    .append(name);
+            switch (random.nextInt(4)) {
+                case 0 -> desc.append(" 4400-43** ****-").append(1000 + random.nextInt(9000));
+                case 1 -> desc.append(String.format(Locale.ROOT, " %02d.%02d.2024", 1 + random.nextInt(28),
+                        1 + random.nextInt(12)));
+                case 2 -> desc.append(" TID ").append(10_000_000 + random.nextInt(90_000_000));
+                default -> desc.append(" #").append(random.nextInt(1000));
+            }
+            desc.append(CITIES[random.nextInt(CITIES.length)]);
+            corpus.add(new String[] { desc.toString(), merchant[1] });
+        }
+        return corpus;
+    }
+
+    // Previous behaviour: keyword = description.trim().toLowerCase(), matched by substring
+    private static Result replayRaw(List<String[]> corpus) {
+        Map<String, String> learned = new LinkedHashMap<>();
+        int hits = 0;
+        for (String[] tx : corpus) {
+            String lower = tx[0].toLowerCase(Locale.ROOT);
+            boolean hit = false;
+            for (String keyword : learned.keySet()) {
+                if (lower.contains(keyword)) {
+                    hit = true;
+                    break;
+                }
+            }
+            if (hit) {
+                hits++;
+            } else {
+                learned.putIfAbsent(tx[0].trim().toLowerCase(Locale.ROOT), tx[1]);
+            }
+        }
+        return new Result((double) hits / corpus.size(), learned.size());
+    }
+
+    private static Result replayNormalized(List<String[]> corpus) {
+        Map<String, String> learned = new LinkedHashMap<>();
+        MerchantMatcher matcher = MerchantMatcher.empty();
+        int hits = 0;
+        int sinceFlush = 0;
+        for (String[] tx : corpus) {
+            if (matcher.match(tx[0]) != null) {
+                hits++;
+            } else {
+                String keyword = MerchantNormalizer.normalize(tx[0]);
+                if (!keyword.isEmpty()) {
+                    learned.putIfAbsent(keyword, tx[1]);
+                }
+            }
+            if (++sinceFlush == FLUSH_EVERY) {
+                matcher = build(learned);
+                sinceFlush = 0;
+            }
+        }
+        return new Result((double) hits / corpus.size(), learned.size());
+    }
+
+    private static MerchantMatcher build(Map<String, String> learned) {
+        List<MerchantCategoryMap> mappings = new ArrayList<>(learned.size());
+        long id = 1;
+        for (Map.Entry<String, String> e : learned.entrySet()) {
+            mappings.add(MerchantCategoryMap.builder().id(id++).keyword(e.getKey()).category(e.getValue())
+                    .source(MerchantCategoryMap.Source.AI_LEARNED).build());
+        }
+        return MerchantMatcher.build(mappings);
+    }
+
+    private record Result(double matchRate, int learned) {
+    }
+}
@@ -0,0 +1,37 @@
+package com.fintrack.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MerchantNormalizerTest {
+
+    @Test
+    void normalize_stripsCardNumbersDatesAndCity() {
+        assertEquals("kaspi", MerchantNormalizer.normalize("KASPI.KZ 4400-43** ****-1234 12.03.2024 ALMATY KZ"));
+        assertEquals("kaspi", MerchantNormalizer.normalize("Kaspi.kz *5521 ALMATY"));
+    }
+
+    @Test
+    void normalize_stripsProcessorPrefixAndTerminalIds() {
+        assertEquals("blue bottle coffee", MerchantNormalizer.normalize("SQ *BLUE BOTTLE COFFEE TID 00412345"));
+        assertEquals("steam games", MerchantNormalizer.normalize("PAYPAL *STEAM GAMES 4029357733"));
+    }
+
+    @Test
+    void normalize_joinsApostrophesAndDropsPunctuation() {
+        assertEquals("mcdonalds", MerchantNormalizer.normalize("MCDONALD'S #1234"));
+        assertEquals("uber trip", MerchantNormalizer.normalize("POS PURCHASE UBER *TRIP"));
+    }
+
+    @Test
+    void normalize_keepsCyrillicMerchantNames() {
+        assertEquals("магнум", MerchantNormalizer.normalize("Покупка МАГНУМ 12.03.24 Алматы"));
+    }
+
+    @Test
+    void normalize_returnsEmptyForNoiseOnly() {
+        assertEquals("", MerchantNormalizer.normalize("POS 12345 ALMATY KZ"));
+        assertEquals("", MerchantNormalizer.normalize(null));
+    }
+}
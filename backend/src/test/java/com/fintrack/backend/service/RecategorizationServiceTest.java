@@ -0,0 +1,274 @@
+package com.fintrack.backend.service;
+
+import com.fintrack.backend.entity.MerchantCategoryMap;
+import com.fintrack.backend.entity.RecategorizationJob;
+import com.fintrack.backend.repository.RecategorizationJobRepository;
+import com.fintrack.backend.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RecategorizationServiceTest {
+
+    @Mock
+    private RecategorizationJobRepository recategorizationJobRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private MerchantIndexService merchantIndexService;
+
+    @Mock
+    private UserCategoryRuleService userCategoryRuleService;
+
+    @InjectMocks
+    private RecategorizationService recategorizationService;
+
+    private RecategorizationJob job;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        job = RecategorizationJob.builder().id(7L).build();
+        when(recategorizationJobRepository.findById(7L)).thenAnswer(inv -> Optional.of(job));
+        when(recategorizationJobRepository.save(any(RecategorizationJob.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(recategorizationJobRepository.claim(eq(7L), eq(RecategorizationJob.Status.RUNNING), any(), any()))
+                .thenReturn(1);
+        when(recategorizationJobRepository.saveProgress(eq(7L), anyLong(), anyLong(), anyLong(), any(), any()))
+                .thenReturn(1);
+        when(recategorizationJobRepository.finish(eq(7L), any(), any(), any(), any())).thenReturn(1);
+        List<MerchantCategoryMap> mappings = List.of(
+                MerchantCategoryMap.builder().id(1L).keyword("starbucks").category("Food").build(),
+                MerchantCategoryMap.builder().id(2L).keyword("uber").category("Transport").build(),
+                MerchantCategoryMap.builder().id(3L).keyword("mcdonalds").category("Fast Food").build());
+        when(merchantIndexService.rebuildNow()).thenReturn(new MerchantIndexService.Snapshot(1, "3:3",
+                MerchantMatcher.build(mappings), MerchantFuzzyIndex.build(mappings), LocalDateTime.now()));
+        when(transactionRepository.updateCategory(anyCollection(), anyString()))
+                .thenAnswer(inv -> ((Collection<Long>) inv.getArgument(0)).size());
+    }
+
+    private void ownerRule(Long userId, String keyword, String category) {
+        when(userCategoryRuleService.loadUncached(any())).thenReturn(Map.of(userId, MerchantMatcher.build(List.of(
+                MerchantCategoryMap.builder().id(9L).keyword(keyword).category(category).build()))));
+    }
+
+    private void verifyFinished(RecategorizationJob.Status status) {
+        verify(recategorizationJobRepository).finish(eq(7L), eq(status), any(), any(), any());
+    }
+
+    private static TransactionRepository.CategoryRow row(long id, String description, String category) {
+        return new TransactionRepository.CategoryRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getUserId() {
+                return id == 2 ? 42L : 1L;
+            }
+
+            @Override
+            public String getDescription() {
+                return description;
+            }
+
+            @Override
+            public String getCategory() {
+                return category;
+            }
+        };
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void run_updatesOnlyChangedRowsGroupedByCategory() {
+        when(transactionRepository.countRecategorizable(null)).thenReturn(4L);
+        when(transactionRepository.findRecategorizableRowsAfter(eq(0L), isNull(), any(Pageable.class)))
+                .thenReturn(List.of(
+                        row(1, "STARBUCKS 01", "Uncategorized"),
+                        row(2, "STARBUCKS 02", "Shopping"),
+                        row(3, "UBER TRIP", "Transport"),
+                        row(4, "MYSTERY SHOP", "Other")));
+
+        recategorizationService.run(7L);
+
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(transactionRepository, times(1)).updateCategory(ids.capture(), eq("Food"));
+        verify(transactionRepository, never()).updateCategory(anyCollection(), eq("Transport"));
+        assertEquals(List.of(1L, 2L), ids.getValue().stream().sorted().toList());
+        verify(recategorizationJobRepository).saveProgress(eq(7L), eq(4L), eq(4L), eq(2L), any(), any());
+        verify(recategorizationJobRepository).initTotal(7L, 4L);
+        verifyFinished(RecategorizationJob.Status.COMPLETED);
+    }
+
+    @Test
+    void run_onlyReadsRowsTheMapCouldHaveProduced() {
+        // A manual "Work" row is not returned by the eligibility query, so a rescan cannot touch it
+        when(transactionRepository.findRecategorizableRowsAfter(eq(0L), isNull(), any(Pageable.class)))
+                .thenReturn(List.of(row(1, "STARBUCKS 01", "Food")));
+
+        recategorizationService.run(7L);
+
+        verify(transactionRepository).countRecategorizable(null);
+        verify(transactionRepository, never()).updateCategory(anyCollection(), anyString());
+    }
+
+    @Test
+    void run_neverAppliesFuzzyMatches() {
+        when(transactionRepository.findRecategorizableRowsAfter(eq(0L), isNull(), any(Pageable.class)))
+                .thenReturn(List.of(row(1, "STARBUKS COFFEE", "Coffee")));
+
+        recategorizationService.run(7L);
+
+        verify(transactionRepository, never()).updateCategory(anyCollection(), anyString());
+        verifyFinished(RecategorizationJob.Status.COMPLETED);
+    }
+
+    @Test
+    void run_resumesFromCheckpointAndFiltersByNormalizedKeyword() {
+        job.setKeyword("mcdonalds");
+        job.setStatus(RecategorizationJob.Status.RUNNING);
+        job.setLastProcessedId(1L);
+        job.setScanned(1L);
+        job.setUpdated(1L);
+        job.setTotal(3L);
+        when(transactionRepository.findRecategorizableRowsAfter(eq(1L), isNull(), any(Pageable.class)))
+                .thenReturn(List.of(row(2, "MCDONALD'S #123", "Shopping"), row(3, "UBER TRIP", "Other")));
+
+        recategorizationService.run(7L);
+
+        verify(transactionRepository).updateCategory(List.of(2L), "Fast Food");
+        verify(transactionRepository, never()).updateCategory(anyCollection(), eq("Transport"));
+        verify(recategorizationJobRepository).saveProgress(eq(7L), eq(3L), eq(3L), eq(2L), any(), any());
+        verify(recategorizationJobRepository, never()).initTotal(anyLong(), anyLong());
+        verifyFinished(RecategorizationJob.Status.COMPLETED);
+    }
+
+    @Test
+    void run_deletedMappingSendsUnclaimedRowsBackToUncategorized() {
+        job.setKeyword("coffee house");
+        job.setPreviousCategory("Coffee");
+        job.setKeywordRemoved(true);
+        when(transactionRepository.findRecategorizableRowsAfter(eq(0L), eq("Coffee"), any(Pageable.class)))
+                .thenReturn(List.of(
+                        row(1, "COFFEE HOUSE 12", "Coffee"),
+                        row(2, "COFFEE HOUSE 14", "Coffee"),
+                        row(3, "STARBUCKS COFFEE HOUSE", "Coffee")));
+        ownerRule(42L, "coffee house 14", "Work");
+
+        recategorizationService.run(7L);
+
+        verify(transactionRepository).updateCategory(List.of(1L), "Uncategorized");
+        verify(transactionRepository).updateCategory(List.of(2L), "Work");
+        verify(transactionRepository).updateCategory(List.of(3L), "Food");
+    }
+
+    @Test
+    void run_stopsWhenCancelledOrTakenOverBetweenChunks() {
+        when(transactionRepository.findRecategorizableRowsAfter(eq(0L), isNull(), any(Pageable.class)))
+                .thenReturn(List.of(row(1, "UBER TRIP", "Transport")));
+        // The checkpoint no longer matches a RUNNING job under this node's lease
+        when(recategorizationJobRepository.saveProgress(eq(7L), anyLong(), anyLong(), anyLong(), any(), any()))
+                .thenReturn(0);
+
+        recategorizationService.run(7L);
+
+        verify(transactionRepository, never()).findRecategorizableRowsAfter(eq(1L), any(), any(Pageable.class));
+        verify(recategorizationJobRepository, never()).finish(anyLong(), any(), any(), any(), any());
+    }
+
+    @Test
+    void run_skipsJobsItCannotClaim() {
+        // Finished, or running on a node that is still checkpointing
+        when(recategorizationJobRepository.claim(eq(7L), any(), any(), any())).thenReturn(0);
+
+        recategorizationService.run(7L);
+
+        verify(merchantIndexService, never()).rebuildNow();
+        verify(transactionRepository, never()).findRecategorizableRowsAfter(anyLong(), any(), any(Pageable.class));
+    }
+
+    @Test
+    void run_keysCheckpointsOnTheRenewedLease() {
+        when(transactionRepository.findRecategorizableRowsAfter(eq(0L), isNull(), any(Pageable.class)))
+                .thenReturn(List.of(row(1, "UBER TRIP", "Transport")));
+        when(transactionRepository.findRecategorizableRowsAfter(eq(1L), isNull(), any(Pageable.class)))
+                .thenReturn(List.of(row(2, "UBER TRIP", "Transport")));
+
+        recategorizationService.run(7L);
+
+        ArgumentCaptor<LocalDateTime> claimed = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(recategorizationJobRepository).claim(eq(7L), any(), claimed.capture(), any());
+        ArgumentCaptor<LocalDateTime> renewed = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(recategorizationJobRepository).saveProgress(eq(7L), eq(1L), eq(1L), eq(0L), eq(claimed.getValue()),
+                renewed.capture());
+        verify(recategorizationJobRepository).saveProgress(eq(7L), eq(2L), eq(2L), eq(0L), eq(renewed.getValue()),
+                any());
+    }
+
+    @Test
+    void run_recordsFailureUnderItsOwnLease() {
+        when(transactionRepository.findRecategorizableRowsAfter(eq(0L), isNull(), any(Pageable.class)))
+                .thenThrow(new IllegalStateException("boom"));
+
+        recategorizationService.run(7L);
+
+        verify(recategorizationJobRepository).finish(eq(7L), eq(RecategorizationJob.Status.FAILED), eq("boom"),
+                any(), any());
+    }
+
+    @Test
+    void cancelAndThrottle_useTargetedUpdates() {
+        when(recategorizationJobRepository.updateMaxRowsPerSecond(7L, 50)).thenReturn(1);
+
+        recategorizationService.throttle(7L, 50);
+        recategorizationService.cancel(7L);
+
+        verify(recategorizationJobRepository).updateMaxRowsPerSecond(7L, 50);
+        verify(recategorizationJobRepository).cancel(eq(7L), eq(RecategorizationJob.Status.CANCELLED), any());
+        verify(recategorizationJobRepository, never()).save(any(RecategorizationJob.class));
+    }
+
+    @Test
+    void run_ownerRuleTakesPrecedence() {
+        when(transactionRepository.findRecategorizableRowsAfter(eq(0L), isNull(), any(Pageable.class)))
+                .thenReturn(List.of(
+                        row(1, "STARBUCKS 01", "Food"),
+                        row(2, "STARBUCKS 02", "Work")));
+        ownerRule(42L, "starbucks", "Work");
+
+        recategorizationService.run(7L);
+
+        verify(transactionRepository, never()).updateCategory(anyCollection(), anyString());
+        // One rule load for the chunk's owners; the shared overlay cache is left alone
+        verify(userCategoryRuleService).loadUncached(Set.of(1L, 42L));
+        verify(userCategoryRuleService, never()).match(any(), any());
+        verifyFinished(RecategorizationJob.Status.COMPLETED);
+    }
+}
@@ -0,0 +1,147 @@
+package com.fintrack.backend.service;
+
+import com.fintrack.backend.entity.Transaction;
+import com.fintrack.backend.entity.User;
+import com.fintrack.backend.repository.TransactionRepository;
+import com.fintrack.backend.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+/**
+ * Export throughput per format, with the database cursor replaced by an in-memory stream
+ * of entities so only the encoding is measured.
+ */
+class ReportExportBenchmarkTest {
+
+    private static final int ROWS = 20_000;
+    private static final List<String> CATEGORIES = List.of("Food", "Transport", "Salary", "Entertainment");
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private ReportService reportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("bench@example.com");
+        when(userRepository.findByEmail("bench@example.com")).thenReturn(Optional.of(user));
+        when(transactionRepository.streamByUserId(1L)).thenAnswer(inv -> LongStream.rangeClosed(1, ROWS)
+                .mapToObj(ReportExportBenchmarkTest::transaction));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("bench@example.com", null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static Transaction transaction(long id) {
+        return Transaction.builder()
+                .id(id)
+                .amount(BigDecimal.valueOf(id % 100_000, 2))
+                .date(LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(id))
+                .description("Card payment, merchant #" + (id % 997))
+                .currency("KZT")
+                .category(CATEGORIES.get((int) (id % CATEGORIES.size())))
+                .type(id % 10 == 0 ? Transaction.TransactionType.INCOME : Transaction.TransactionType.EXPENSE)
+                .build();
+    }
+
+    private long export(ReportService.ExportFormat format) throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        reportService.exportTransactionsStreaming(format).writeTo(out);
+        return out.count;
+    }
+
+    @Test
+    void exportThroughputByFormat() throws IOException {
+        System.out.printf(Locale.ROOT, "[export benchmark] %d transactions%n", ROWS);
+        double xlsxSeconds = 0;
+        double csvSeconds = 0;
+        for (ReportService.ExportFormat format : ReportService.ExportFormat.values()) {
+            // Warm up the encoder and the JIT before timing
+            export(format);
+
+            long start = System.nanoTime();
+            long bytes = export(format);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf(Locale.ROOT, "  %-6s %8.0f rows/s  %6.2f MB  %.3f s%n", format.getExtension(),
+                    ROWS / seconds, bytes / 1e6, seconds);
+            assertTrue(bytes > 0);
+            if (format == ReportService.ExportFormat.XLSX) {
+                xlsxSeconds = seconds;
+            } else if (format == ReportService.ExportFormat.CSV) {
+                csvSeconds = seconds;
+            }
+        }
+        System.out.printf(Locale.ROOT, "  csv is %.1fx the xlsx throughput%n", xlsxSeconds / csvSeconds);
+    }
+
+    @Test
+    void csvHasOneLinePerRow() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        reportService.exportTransactionsStreaming(ReportService.ExportFormat.CSV).writeTo(out);
+
+        assertEquals(ROWS + 1, out.newlines);
+    }
+
+    // Discards the export; keeps only sizes so the benchmark measures encoding, not buffering
+    private static final class CountingOutputStream extends OutputStream {
+        long count;
+        long newlines;
+
+        @Override
+        public void write(int b) {
+            count++;
+            if (b == '\n') {
+                newlines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    newlines++;
+                }
+            }
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package com.fintrack.backend.service;
 
+import com.fintrack.backend.dto.ImportResultDto;
 import com.fintrack.backend.entity.Transaction;
 import com.fintrack.backend.entity.User;
+import com.fintrack.backend.repository.TransactionBulkRepository;
 import com.fintrack.backend.repository.TransactionRepository;
 import com.fintrack.backend.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.AfterEach;
@@ -12,21 +17,36 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class ReportServiceTest {
@@ -34,6 +54,9 @@ class ReportServiceTest {
     @Mock
     private TransactionRepository transactionRepository;
 
+    @Mock
+    private TransactionBulkRepository transactionBulkRepository;
+
     @Mock
     private UserRepository userRepository;
 
@@ -43,6 +66,12 @@ class ReportServiceTest {
     @Mock
     private Authentication authentication;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private ReportService reportService;
 
@@ -62,6 +91,7 @@ class ReportServiceTest {
     @Test
     void exportTransactionsStreaming_Success() throws IOException {
         User user = new User();
+        user.setId(1L);
         user.setUsername("testuser");
         user.setEmail("test@example.com");
 
@@ -77,7 +107,7 @@ class ReportServiceTest {
                 .build();
 
         when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
-        when(transactionRepository.findByUser(user)).thenReturn(Collections.singletonList(t1));
+        when(transactionRepository.streamByUserId(1L)).thenReturn(Stream.of(t1));
 
         StreamingResponseBody stream = reportService.exportTransactionsStreaming();
         assertNotNull(stream);
@@ -91,4 +121,250 @@ class ReportServiceTest {
             assertEquals("Test Transaction", workbook.getSheetAt(0).getRow(1).getCell(2).getStringCellValue());
         }
     }
+
+    @Test
+    void exportTransactionsStreaming_WritesRowsBeyondWindowAndDetachesThem() throws IOException {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("test@example.com");
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+        when(transactionRepository.streamByUserId(1L)).thenReturn(LongStream.rangeClosed(1, 250)
+                .mapToObj(id -> Transaction.builder()
+                        .id(id)
+                        .amount(new BigDecimal("10.00"))
+                        .date(LocalDateTime.of(2025, 1, 15, 10, 30))
+                        .description("Row " + id)
+                        .type(Transaction.TransactionType.EXPENSE)
+                        .build()));
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        reportService.exportTransactionsStreaming().writeTo(baos);
+
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(baos.toByteArray()))) {
+            assertEquals(250, workbook.getSheetAt(0).getLastRowNum());
+            assertEquals("Row 250", workbook.getSheetAt(0).getRow(250).getCell(2).getStringCellValue());
+        }
+        verify(entityManager, times(250)).detach(any(Transaction.class));
+    }
+
+    private void stubRows(Transaction... rows) {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("test@example.com");
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+        when(transactionRepository.streamByUserId(1L)).thenReturn(Stream.of(rows));
+    }
+
+    private static Transaction quoted() {
+        return Transaction.builder()
+                .id(7L)
+                .amount(new BigDecimal("1500.50"))
+                .date(LocalDateTime.of(2025, 1, 15, 10, 30))
+                .description("Cafe \"Nomad\", Almaty")
+                .currency("KZT")
+                .category("Food")
+                .type(Transaction.TransactionType.EXPENSE)
+                .build();
+    }
+
+    @Test
+    void exportCsv_QuotesFieldsAndKeepsImportColumns() throws IOException {
+        stubRows(quoted());
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        reportService.exportTransactionsStreaming(ReportService.ExportFormat.CSV).writeTo(baos);
+
+        assertEquals("ID,Date,Description,Amount,Currency,Category,Type\r\n"
+                + "7,2025-01-15T10:30,\"Cafe \"\"Nomad\"\", Almaty\",1500.50,KZT,Food,EXPENSE\r\n",
+                baos.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void exportCsvGz_IsGzippedCsv() throws IOException {
+        stubRows(quoted());
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        reportService.exportTransactionsStreaming(ReportService.ExportFormat.CSV_GZ).writeTo(baos);
+
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(baos.toByteArray()))) {
+            String csv = new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(csv.startsWith("ID,Date,Description"));
+            assertTrue(csv.contains("1500.50,KZT,Food,EXPENSE"));
+        }
+    }
+
+    @Test
+    void exportJsonLines_WritesOneObjectPerLine() throws IOException {
+        Transaction income = Transaction.builder()
+                .id(8L)
+                .amount(new BigDecimal("500000"))
+                .date(LocalDateTime.of(2025, 1, 20, 14, 0))
+                .description("Salary")
+                .type(Transaction.TransactionType.INCOME)
+                .build();
+        stubRows(quoted(), income);
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        reportService.exportTransactionsStreaming(ReportService.ExportFormat.JSONL).writeTo(baos);
+
+        String[] lines = baos.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        JsonNode first = new ObjectMapper().readTree(lines[0]);
+        assertEquals("Cafe \"Nomad\", Almaty", first.get("description").asText());
+        assertTrue(lines[0].contains("\"amount\":1500.50"), lines[0]);
+        assertEquals("INCOME", new ObjectMapper().readTree(lines[1]).get("type").asText());
+    }
+
+    @Test
+    void exportFormat_RejectsUnknownExtension() {
+        assertEquals(ReportService.ExportFormat.CSV_GZ, ReportService.ExportFormat.fromExtension("CSV.GZ"));
+        assertThrows(IllegalArgumentException.class, () -> ReportService.ExportFormat.fromExtension("pdf"));
+    }
+
+    private User importingUser() {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("test@example.com");
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+        return user;
+    }
+
+    @Test
+    void importCsv_WritesRowsInChunks() throws Exception {
+        importingUser();
+        java.lang.reflect.Field size = ReportService.class.getDeclaredField("importBatchSize");
+        size.setAccessible(true);
+        size.set(reportService, 2);
+        List<Integer> chunkSizes = new ArrayList<>();
+        when(transactionBulkRepository.insertAll(anyList())).thenAnswer(inv -> {
+            chunkSizes.add(((List<?>) inv.getArgument(0)).size());
+            return chunkSizes.get(chunkSizes.size() - 1);
+        });
+
+        ImportResultDto result = reportService.importTransactions(new MockMultipartFile("file", "t.csv", "text/csv",
+                reportService.generateSampleCsv().getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(5, result.getImported());
+        assertEquals(0, result.getFailed());
+        assertEquals(List.of(2, 2, 1), chunkSizes);
+    }
+
+    @Test
+    void importCsv_ChunkFailingPartwayRollsBackTheWholeFile() throws Exception {
+        importingUser();
+        java.lang.reflect.Field size = ReportService.class.getDeclaredField("importBatchSize");
+        size.setAccessible(true);
+        size.set(reportService, 2);
+        when(transactionBulkRepository.insertAll(anyList()))
+                .thenReturn(2)
+                .thenThrow(new DataIntegrityViolationException("value too long for type character varying(255)"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> reportService.importTransactions(
+                new MockMultipartFile("file", "t.csv", "text/csv",
+                        reportService.generateSampleCsv().getBytes(StandardCharsets.UTF_8))));
+
+        // The first chunk was written inside the same transaction, so it goes too
+        verify(transactionBulkRepository, times(2)).insertAll(anyList());
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    void importCsv_ReportsBadRowsAndKeepsTheRest() throws IOException {
+        importingUser();
+        List<Transaction> written = new ArrayList<>();
+        when(transactionBulkRepository.insertAll(anyList())).thenAnswer(inv -> {
+            List<Transaction> chunk = inv.getArgument(0);
+            written.addAll(chunk);
+            return chunk.size();
+        });
+        String csv = "Date,Description,Amount,Type\n"
+                + "2025-01-15,Salary,500000,INCOME\n"
+                + "2025-01-16,Groceries,abc,EXPENSE\n"
+                + "not a date,Taxi,-2500,\n"
+                + "2025-01-18,Refund,100,LOAN\n"
+                + "2025-01-19,Coffee,-900,\n";
+
+        ImportResultDto result = reportService.importTransactions(
+                new MockMultipartFile("file", "t.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, result.getImported());
+        assertEquals(3, result.getFailed());
+        assertEquals(List.of(2L, 3L, 4L), result.getErrors().stream().map(ImportResultDto.RowError::getRow).toList());
+        assertEquals("Invalid Amount 'abc'", result.getErrors().get(0).getMessage());
+        assertEquals(Transaction.TransactionType.EXPENSE, written.get(1).getType());
+        assertEquals(new BigDecimal("900"), written.get(1).getAmount());
+    }
+
+    @Test
+    void importTransactions_RejectsUnknownFileType() {
+        importingUser();
+
+        assertThrows(IllegalArgumentException.class, () -> reportService.importTransactions(
+                new MockMultipartFile("file", "t.pdf", "application/pdf", new byte[0])));
+    }
+
+    @Test
+    void importXlsx_ReadsExportedWorkbookBack() throws IOException {
+        User user = importingUser();
+        List<Transaction> exported = new ArrayList<>();
+        for (long id = 1; id <= 3; id++) {
+            exported.add(Transaction.builder()
+                    .id(id)
+                    .amount(new BigDecimal("1500.5"))
+                    .date(LocalDateTime.of(2025, 1, (int) id, 9, 0))
+                    .description("Row " + id)
+                    .currency("USD")
+                    .category("Food")
+                    .type(Transaction.TransactionType.EXPENSE)
+                    .user(user)
+                    .build());
+        }
+        when(transactionRepository.streamByUserId(1L)).thenReturn(exported.stream());
+        ByteArrayOutputStream xlsx = new ByteArrayOutputStream();
+        reportService.exportTransactionsStreaming().writeTo(xlsx);
+
+        List<Transaction> written = new ArrayList<>();
+        when(transactionBulkRepository.insertAll(anyList())).thenAnswer(inv -> {
+            List<Transaction> chunk = inv.getArgument(0);
+            written.addAll(chunk);
+            return chunk.size();
+        });
+
+        ImportResultDto result = reportService.importTransactions(new MockMultipartFile("file", "report.xlsx",
+                "application/octet-stream", xlsx.toByteArray()));
+
+        assertEquals(3, result.getImported());
+        assertEquals(0, result.getFailed());
+        assertEquals("Row 3", written.get(2).getDescription());
+        assertEquals(LocalDateTime.of(2025, 1, 3, 9, 0), written.get(2).getDate());
+        assertEquals(new BigDecimal("1500.5"), written.get(2).getAmount());
+        assertEquals("USD", written.get(2).getCurrency());
+    }
+
+    @Test
+    void importXlsx_ReportsBadRowsByRowNumber() throws IOException {
+        importingUser();
+        when(transactionBulkRepository.insertAll(anyList())).thenAnswer(inv -> ((List<?>) inv.getArgument(0)).size());
+        ByteArrayOutputStream xlsx = new ByteArrayOutputStream();
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            org.apache.poi.ss.usermodel.Sheet sheet = workbook.createSheet("Transactions");
+            sheet.createRow(0).createCell(1).setCellValue("Date");
+            org.apache.poi.ss.usermodel.Row good = sheet.createRow(1);
+            good.createCell(1).setCellValue("2025-01-15T10:30:00");
+            good.createCell(3).setCellValue(-250);
+            org.apache.poi.ss.usermodel.Row bad = sheet.createRow(2);
+            bad.createCell(1).setCellValue("2025-01-16T10:30:00");
+            bad.createCell(3).setCellValue("twelve");
+            workbook.write(xlsx);
+        }
+
+        ImportResultDto result = reportService.importTransactions(new MockMultipartFile("file", "t.xlsx",
+                "application/octet-stream", xlsx.toByteArray()));
+
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals(2L, result.getErrors().get(0).getRow());
+        assertEquals("Invalid Amount 'twelve'", result.getErrors().get(0).getMessage());
+    }
 }
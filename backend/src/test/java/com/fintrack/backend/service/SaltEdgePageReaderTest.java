@@ -0,0 +1,80 @@
+package com.fintrack.backend.service;
+
+import com.fintrack.backend.dto.SaltEdgeDTOs;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SaltEdgePageReaderTest {
+
+    private static InputStream json(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String transaction(int id) {
+        return """
+                {"id":"%d","made_on":"2024-03-12","amount":-12.50,"currency_code":"EUR",
+                 "description":"SHOP %d","extra":{"merchant_id":"m1","additional":{"nested":[1,2,3]}},"unknown":true}
+                """.formatted(id, id);
+    }
+
+    @Test
+    void handsOverDataInBatches() throws IOException {
+        StringBuilder data = new StringBuilder();
+        for (int i = 1; i <= 5; i++) {
+            data.append(i > 1 ? "," : "").append(transaction(i));
+        }
+        List<List<SaltEdgeDTOs.SaltEdgeTransactionData>> batches = new ArrayList<>();
+
+        SaltEdgePageReader.PageResult result = SaltEdgePageReader.read(
+                json("{\"data\":[" + data + "],\"meta\":{\"next_id\":\"6\",\"next_page\":\"/x\"}}"), 2, batches::add);
+
+        assertEquals(5, result.transactions());
+        assertEquals("6", result.nextId());
+        assertEquals(List.of(2, 2, 1), batches.stream().map(List::size).toList());
+        SaltEdgeDTOs.SaltEdgeTransactionData first = batches.get(0).get(0);
+        assertEquals("1", first.getId());
+        assertEquals(LocalDate.of(2024, 3, 12), first.getMadeOn());
+        assertEquals(new BigDecimal("-12.50"), first.getAmount());
+        assertEquals("EUR", first.getCurrencyCode());
+        assertNull(first.getExtra());
+    }
+
+    @Test
+    void metaMayPrecedeData() throws IOException {
+        List<SaltEdgeDTOs.SaltEdgeTransactionData> seen = new ArrayList<>();
+
+        SaltEdgePageReader.PageResult result = SaltEdgePageReader.read(
+                json("{\"meta\":{\"next_id\":null},\"data\":[" + transaction(7) + "]}"), 10, seen::addAll);
+
+        assertEquals(1, result.transactions());
+        assertNull(result.nextId());
+        assertEquals("7", seen.get(0).getId());
+    }
+
+    @Test
+    void emptyOrMissingDataYieldsNothing() throws IOException {
+        List<SaltEdgeDTOs.SaltEdgeTransactionData> seen = new ArrayList<>();
+
+        assertEquals(0, SaltEdgePageReader.read(json("{\"data\":[]}"), 10, seen::addAll).transactions());
+        assertEquals(0, SaltEdgePageReader.read(json("{\"data\":null,\"meta\":null}"), 10, seen::addAll).transactions());
+        assertEquals(0, seen.size());
+    }
+
+    @Test
+    void rejectsNonObjectBody() {
+        assertThrows(IOException.class, () -> SaltEdgePageReader.read(json("[]"), 10, batch -> {
+        }));
+    }
+}
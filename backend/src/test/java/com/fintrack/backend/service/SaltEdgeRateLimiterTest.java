@@ -0,0 +1,48 @@
+package com.fintrack.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SaltEdgeRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void allowsOneSecondBurstThenPaces() {
+        SaltEdgeRateLimiter limiter = new SaltEdgeRateLimiter(4, now::get);
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(0, limiter.tryReserve());
+        }
+        long wait = limiter.tryReserve();
+        assertTrue(wait > 0 && wait <= 250_000_000L, "wait " + wait);
+
+        now.addAndGet(250_000_000L);
+        assertEquals(0, limiter.tryReserve());
+        assertTrue(limiter.tryReserve() > 0);
+    }
+
+    @Test
+    void idleTimeDoesNotBankMoreThanCapacity() {
+        SaltEdgeRateLimiter limiter = new SaltEdgeRateLimiter(2, now::get);
+
+        now.addAndGet(60_000_000_000L);
+
+        assertEquals(0, limiter.tryReserve());
+        assertEquals(0, limiter.tryReserve());
+        assertTrue(limiter.tryReserve() > 0);
+    }
+
+    @Test
+    void zeroRateIsUnlimited() {
+        SaltEdgeRateLimiter limiter = new SaltEdgeRateLimiter(0, now::get);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(0, limiter.tryReserve());
+        }
+    }
+}
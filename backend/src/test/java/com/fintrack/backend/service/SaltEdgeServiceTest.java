@@ -12,6 +12,10 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
@@ -21,9 +25,13 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class SaltEdgeServiceTest {
@@ -32,20 +40,41 @@ class SaltEdgeServiceTest {
         private RestTemplate restTemplate;
 
         @Mock
-        private com.fintrack.backend.repository.TransactionRepository transactionRepository;
+        private com.fintrack.backend.repository.TransactionBulkRepository transactionBulkRepository;
 
         @Mock
         private com.fintrack.backend.repository.UserRepository userRepository;
 
         @Mock
-        private org.springframework.messaging.simp.SimpMessagingTemplate messagingTemplate;
+        private TransactionEventPublisher transactionEventPublisher;
 
         @Mock
         private CategorizationService categorizationService;
 
+        @Mock
+        private SyncJobQueue syncJobQueue;
+
+        @Mock
+        private com.fintrack.backend.repository.SyncCursorRepository syncCursorRepository;
+
+        @Mock
+        private SaltEdgeRateLimiter rateLimiter;
+
+        @Mock
+        private ExternalIdIndex externalIdIndex;
+
+        @Mock
+        private PlatformTransactionManager transactionManager;
+
+        @Mock
+        private SyncRunService syncRunService;
+
         @InjectMocks
         private SaltEdgeService saltEdgeService;
 
+        private static final com.fasterxml.jackson.databind.ObjectMapper JSON =
+                        com.fasterxml.jackson.databind.json.JsonMapper.builder().findAndAddModules().build();
+
         @BeforeEach
         void setUp() {
                 MockitoAnnotations.openMocks(this);
@@ -63,8 +92,28 @@ class SaltEdgeServiceTest {
                         throw new RuntimeException(e);
                 }
 
+                // Transaction pages are stubbed below as exchange() responses; serve them to the
+                // streaming reader as the JSON bodies Salt Edge would send
+                when(restTemplate.execute(any(String.class), eq(HttpMethod.GET), any(RequestCallback.class),
+                                any(ResponseExtractor.class))).thenAnswer(inv -> {
+                                        ResponseEntity<SaltEdgeDTOs.SaltEdgeTransactionResponse> page = restTemplate.exchange(
+                                                        (String) inv.getArgument(0), HttpMethod.GET, HttpEntity.EMPTY,
+                                                        SaltEdgeDTOs.SaltEdgeTransactionResponse.class);
+                                        byte[] json = JSON.writeValueAsBytes(page != null ? page.getBody() : null);
+                                        ClientHttpResponse response = org.mockito.Mockito.mock(ClientHttpResponse.class);
+                                        when(response.getBody()).thenReturn(new java.io.ByteArrayInputStream(json));
+                                        return ((ResponseExtractor<?>) inv.getArgument(3)).extractData(response);
+                                });
+
                 // Default: categorization returns "Food" for test descriptions
                 when(categorizationService.categorize(any(String.class))).thenReturn("Food");
+                when(categorizationService.categorizeAll(any(), anyCollection())).thenAnswer(inv -> {
+                        java.util.Map<String, String> result = new java.util.HashMap<>();
+                        for (Object d : (java.util.Collection<?>) inv.getArgument(1)) {
+                                result.put((String) d, "Food");
+                        }
+                        return result;
+                });
         }
 
         @Test
@@ -106,8 +155,8 @@ class SaltEdgeServiceTest {
                                 .thenReturn(new ResponseEntity<>(response, HttpStatus.OK));
 
                 // Mock repository calls
-                when(transactionRepository.findByExternalIdIn(anyList())).thenReturn(Collections.emptyList());
-                when(transactionRepository.save(any(Transaction.class))).thenAnswer(i -> i.getArguments()[0]);
+                when(externalIdIndex.findExisting(any(), anyCollection())).thenReturn(java.util.Set.of());
+                when(transactionBulkRepository.insertIgnoringDuplicates(anyList())).thenAnswer(i -> i.getArguments()[0]);
 
                 List<Transaction> transactions = saltEdgeService.fetchTransactions("conn123", new User());
 
@@ -122,6 +171,43 @@ class SaltEdgeServiceTest {
                 assertEquals(Transaction.TransactionType.INCOME, tx.getType()); // Positive amount -> INCOME
         }
 
+        @Test
+        void fetchTransactions_CategorizesPageInOneBatch() {
+                SaltEdgeDTOs.SaltEdgeTransactionData first = new SaltEdgeDTOs.SaltEdgeTransactionData();
+                first.setId("tx1");
+                first.setAmount(new BigDecimal("-10"));
+                first.setDescription("YANDEX GO");
+                first.setMadeOn(LocalDate.of(2023, 10, 27));
+
+                SaltEdgeDTOs.SaltEdgeTransactionData second = new SaltEdgeDTOs.SaltEdgeTransactionData();
+                second.setId("tx2");
+                second.setAmount(new BigDecimal("-12"));
+                second.setDescription("YANDEX GO");
+                second.setMadeOn(LocalDate.of(2023, 10, 28));
+
+                SaltEdgeDTOs.SaltEdgeTransactionResponse response = new SaltEdgeDTOs.SaltEdgeTransactionResponse(
+                                List.of(first, second), null);
+
+                when(restTemplate.exchange(
+                                any(String.class),
+                                eq(HttpMethod.GET),
+                                any(HttpEntity.class),
+                                eq(SaltEdgeDTOs.SaltEdgeTransactionResponse.class)))
+                                .thenReturn(new ResponseEntity<>(response, HttpStatus.OK));
+                when(externalIdIndex.findExisting(any(), anyCollection())).thenReturn(java.util.Set.of());
+                when(transactionBulkRepository.insertIgnoringDuplicates(anyList())).thenAnswer(i -> i.getArguments()[0]);
+                when(categorizationService.categorizeAll(any(), anyCollection()))
+                                .thenReturn(java.util.Map.of("YANDEX GO", "Transport"));
+
+                List<Transaction> transactions = saltEdgeService.fetchTransactions("conn123", new User());
+
+                assertEquals(2, transactions.size());
+                assertEquals("Transport", transactions.get(0).getCategory());
+                assertEquals("Transport", transactions.get(1).getCategory());
+                verify(categorizationService, times(1)).categorizeAll(any(), anyCollection());
+                verify(categorizationService, times(0)).categorize(any(String.class));
+        }
+
         @Test
         void importDataForCustomer_Success() {
                 User user = new User();
@@ -149,8 +235,445 @@ class SaltEdgeServiceTest {
                                 eq(SaltEdgeDTOs.SaltEdgeTransactionResponse.class)))
                                 .thenReturn(new ResponseEntity<>(txResponse, HttpStatus.OK));
 
-                when(transactionRepository.findByExternalIdIn(anyList())).thenReturn(Collections.emptyList());
+                when(externalIdIndex.findExisting(any(), anyCollection())).thenReturn(java.util.Set.of());
+
+                saltEdgeService.importDataForCustomer(user);
+        }
+
+        @Test
+        void importDataForCustomer_FetchesConnectionsConcurrently() {
+                User user = new User();
+                user.setSaltEdgeCustomerId("cust123");
+                user.setSaltEdgeConnectionId("conn1");
+
+                List<SaltEdgeDTOs.ConnectionData> connections = new java.util.ArrayList<>();
+                for (String id : List.of("conn1", "conn2", "conn3")) {
+                        SaltEdgeDTOs.ConnectionData connData = new SaltEdgeDTOs.ConnectionData();
+                        connData.setId(id);
+                        connections.add(connData);
+                }
+                when(restTemplate.exchange(
+                                eq("https://www.saltedge.com/api/v6/connections?customer_id=cust123"),
+                                eq(HttpMethod.GET),
+                                any(HttpEntity.class),
+                                eq(SaltEdgeDTOs.SaltEdgeConnectionResponse.class)))
+                                .thenReturn(new ResponseEntity<>(
+                                                new SaltEdgeDTOs.SaltEdgeConnectionResponse(connections), HttpStatus.OK));
+
+                // Each bank takes 300 ms to answer; conn2 fails outright
+                java.util.concurrent.atomic.AtomicInteger inFlight = new java.util.concurrent.atomic.AtomicInteger();
+                java.util.concurrent.atomic.AtomicInteger maxInFlight = new java.util.concurrent.atomic.AtomicInteger();
+                when(restTemplate.exchange(
+                                org.mockito.ArgumentMatchers.startsWith("https://www.saltedge.com/api/v6/transactions"),
+                                eq(HttpMethod.GET),
+                                any(HttpEntity.class),
+                                eq(SaltEdgeDTOs.SaltEdgeTransactionResponse.class)))
+                                .thenAnswer(inv -> {
+                                        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                                        try {
+                                                Thread.sleep(300);
+                                        } finally {
+                                                inFlight.decrementAndGet();
+                                        }
+                                        if (((String) inv.getArgument(0)).endsWith("conn2")) {
+                                                throw new RuntimeException("bank unavailable");
+                                        }
+                                        return new ResponseEntity<>(new SaltEdgeDTOs.SaltEdgeTransactionResponse(
+                                                        Collections.emptyList(), null), HttpStatus.OK);
+                                });
+
+                long start = System.currentTimeMillis();
+                saltEdgeService.importDataForCustomer(user);
+                long elapsed = System.currentTimeMillis() - start;
+
+                assertEquals(3, maxInFlight.get());
+                org.junit.jupiter.api.Assertions.assertTrue(elapsed < 800, "sync took " + elapsed + " ms");
+                verify(restTemplate, times(3)).exchange(
+                                org.mockito.ArgumentMatchers.startsWith("https://www.saltedge.com/api/v6/transactions"),
+                                eq(HttpMethod.GET),
+                                any(HttpEntity.class),
+                                eq(SaltEdgeDTOs.SaltEdgeTransactionResponse.class));
+        }
+
+        @Test
+        void importDataForCustomer_RespectsPerCustomerCap() throws Exception {
+                java.lang.reflect.Field cap = SaltEdgeService.class.getDeclaredField("maxConnectionsPerCustomer");
+                cap.setAccessible(true);
+                cap.set(saltEdgeService, 1);
+
+                User user = new User();
+                user.setSaltEdgeCustomerId("cust123");
+                user.setSaltEdgeConnectionId("conn1");
+                List<SaltEdgeDTOs.ConnectionData> connections = new java.util.ArrayList<>();
+                for (String id : List.of("conn1", "conn2")) {
+                        SaltEdgeDTOs.ConnectionData connData = new SaltEdgeDTOs.ConnectionData();
+                        connData.setId(id);
+                        connections.add(connData);
+                }
+                when(restTemplate.exchange(
+                                eq("https://www.saltedge.com/api/v6/connections?customer_id=cust123"),
+                                eq(HttpMethod.GET),
+                                any(HttpEntity.class),
+                                eq(SaltEdgeDTOs.SaltEdgeConnectionResponse.class)))
+                                .thenReturn(new ResponseEntity<>(
+                                                new SaltEdgeDTOs.SaltEdgeConnectionResponse(connections), HttpStatus.OK));
+
+                java.util.concurrent.atomic.AtomicInteger inFlight = new java.util.concurrent.atomic.AtomicInteger();
+                java.util.concurrent.atomic.AtomicInteger maxInFlight = new java.util.concurrent.atomic.AtomicInteger();
+                when(restTemplate.exchange(
+                                org.mockito.ArgumentMatchers.startsWith("https://www.saltedge.com/api/v6/transactions"),
+                                eq(HttpMethod.GET),
+                                any(HttpEntity.class),
+                                eq(SaltEdgeDTOs.SaltEdgeTransactionResponse.class)))
+                                .thenAnswer(inv -> {
+                                        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                                        Thread.sleep(50);
+                                        inFlight.decrementAndGet();
+                                        return new ResponseEntity<>(new SaltEdgeDTOs.SaltEdgeTransactionResponse(
+                                                        Collections.emptyList(), null), HttpStatus.OK);
+                                });
 
                 saltEdgeService.importDataForCustomer(user);
+
+                assertEquals(1, maxInFlight.get());
+        }
+
+        @Test
+        void importDataForCustomer_PerCustomerCapSpansConcurrentImports() throws Exception {
+                java.lang.reflect.Field cap = SaltEdgeService.class.getDeclaredField("maxConnectionsPerCustomer");
+                cap.setAccessible(true);
+                cap.set(saltEdgeService, 2);
+
+                List<SaltEdgeDTOs.ConnectionData> connections = new java.util.ArrayList<>();
+                for (String id : List.of("conn1", "conn2", "conn3")) {
+                        SaltEdgeDTOs.ConnectionData connData = new SaltEdgeDTOs.ConnectionData();
+                        connData.setId(id);
+                        connections.add(connData);
+                }
+                when(restTemplate.exchange(
+                                eq("https://www.saltedge.com/api/v6/connections?customer_id=cust123"),
+                                eq(HttpMethod.GET),
+                                any(HttpEntity.class),
+                                eq(SaltEdgeDTOs.SaltEdgeConnectionResponse.class)))
+                                .thenReturn(new ResponseEntity<>(
+                                                new SaltEdgeDTOs.SaltEdgeConnectionResponse(connections), HttpStatus.OK));
+
+                java.util.concurrent.atomic.AtomicInteger inFlight = new java.util.concurrent.atomic.AtomicInteger();
+                java.util.concurrent.atomic.AtomicInteger maxInFlight = new java.util.concurrent.atomic.AtomicInteger();
+                when(restTemplate.exchange(
+                                org.mockito.ArgumentMatchers.startsWith("https://www.saltedge.com/api/v6/transactions"),
+                                eq(HttpMethod.GET),
+                                any(HttpEntity.class),
+                                eq(SaltEdgeDTOs.SaltEdgeTransactionResponse.class)))
+                                .thenAnswer(inv -> {
+                                        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                                        try {
+                                                Thread.sleep(100);
+                                        } finally {
+                                                inFlight.decrementAndGet();
+                                        }
+                                        return new ResponseEntity<>(new SaltEdgeDTOs.SaltEdgeTransactionResponse(
+                                                        Collections.emptyList(), null), HttpStatus.OK);
+                                });
+
+                // A callback-triggered and a scheduled import of the same customer overlap
+                java.util.concurrent.CountDownLatch go = new java.util.concurrent.CountDownLatch(1);
+                List<java.util.concurrent.CompletableFuture<Void>> imports = new java.util.ArrayList<>();
+                for (int i = 0; i < 2; i++) {
+                        User user = new User();
+                        user.setSaltEdgeCustomerId("cust123");
+                        user.setSaltEdgeConnectionId("conn1");
+                        imports.add(java.util.concurrent.CompletableFuture.runAsync(() -> {
+                                try {
+                                        go.await();
+                                } catch (InterruptedException e) {
+                                        Thread.currentThread().interrupt();
+                                }
+                                saltEdgeService.importDataForCustomer(user);
+                        }));
+                }
+                go.countDown();
+                java.util.concurrent.CompletableFuture.allOf(imports.toArray(new java.util.concurrent.CompletableFuture[0]))
+                                .get(10, java.util.concurrent.TimeUnit.SECONDS);
+
+                assertEquals(2, maxInFlight.get());
+                verify(restTemplate, times(6)).exchange(
+                                org.mockito.ArgumentMatchers.startsWith("https://www.saltedge.com/api/v6/transactions"),
+                                eq(HttpMethod.GET),
+                                any(HttpEntity.class),
+                                eq(SaltEdgeDTOs.SaltEdgeTransactionResponse.class));
+                // Once both imports are done the customer's slots are released, not kept forever
+                java.lang.reflect.Field slots = SaltEdgeService.class.getDeclaredField("customerSlots");
+                slots.setAccessible(true);
+                assertTrue(((java.util.Map<?, ?>) slots.get(saltEdgeService)).isEmpty());
+        }
+
+        @Test
+        void fetchTransactions_ConcurrentlyInsertedRowsAreSkipped() {
+                SaltEdgeDTOs.SaltEdgeTransactionData first = new SaltEdgeDTOs.SaltEdgeTransactionData();
+                first.setId("tx1");
+                first.setAmount(new BigDecimal("-12.00"));
+                first.setDescription("WOLT");
+                first.setMadeOn(LocalDate.of(2024, 3, 12));
+                SaltEdgeDTOs.SaltEdgeTransactionData second = new SaltEdgeDTOs.SaltEdgeTransactionData();
+                second.setId("tx2");
+                second.setAmount(new BigDecimal("-30.00"));
+                second.setDescription("MAGNUM");
+                second.setMadeOn(LocalDate.of(2024, 3, 12));
+
+                when(restTemplate.exchange(
+                                any(String.class),
+                                eq(HttpMethod.GET),
+                                any(HttpEntity.class),
+                                eq(SaltEdgeDTOs.SaltEdgeTransactionResponse.class)))
+                                .thenReturn(new ResponseEntity<>(new SaltEdgeDTOs.SaltEdgeTransactionResponse(
+                                                List.of(first, second), null), HttpStatus.OK));
+                when(externalIdIndex.findExisting(any(), anyCollection())).thenReturn(java.util.Set.of());
+                // Another sync stored tx1 between the existence check and the insert
+                when(transactionBulkRepository.insertIgnoringDuplicates(anyList()))
+                                .thenAnswer(i -> ((List<Transaction>) i.getArgument(0)).subList(1, 2));
+
+                User user = new User();
+                user.setId(5L);
+                List<Transaction> transactions = saltEdgeService.fetchTransactions("conn123", user);
+
+                assertEquals(1, transactions.size());
+                assertEquals("tx2", transactions.get(0).getExternalId());
+                verify(transactionBulkRepository, times(1)).insertIgnoringDuplicates(anyList());
+                // Only the row this sync inserted moves the balance
+                verify(userRepository, times(1)).adjustBalance(5L, new BigDecimal("-30.00"));
+                // Only the rows this sync inserted are pushed to the owner
+                verify(transactionEventPublisher).publishAdded(user, "conn123", transactions);
+        }
+
+        @Test
+        void balanceDelta_addsIncomeAndSubtractsExpenses() {
+                List<Transaction> rows = List.of(
+                                Transaction.builder().amount(new BigDecimal("100.00"))
+                                                .type(Transaction.TransactionType.INCOME).build(),
+                                Transaction.builder().amount(new BigDecimal("12.50"))
+                                                .type(Transaction.TransactionType.EXPENSE).build());
+
+                assertEquals(new BigDecimal("87.50"), SaltEdgeService.balanceDelta(rows));
+        }
+
+        @Test
+        void fetchTransactions_PrefetchesNextPageWhileProcessing() {
+                // Five pages; downloading and processing each take 100 ms
+                when(restTemplate.exchange(
+                                any(String.class),
+                                eq(HttpMethod.GET),
+                                any(HttpEntity.class),
+                                eq(SaltEdgeDTOs.SaltEdgeTransactionResponse.class)))
+                                .thenAnswer(inv -> {
+                                        Thread.sleep(100);
+                                        String url = inv.getArgument(0);
+                                        int page = url.contains("from_id=") ? Integer.parseInt(url.substring(url.indexOf("from_id=") + 8)) : 0;
+                                        SaltEdgeDTOs.SaltEdgeTransactionData data = new SaltEdgeDTOs.SaltEdgeTransactionData();
+                                        data.setId("tx" + page);
+                                        data.setAmount(new BigDecimal("-1.00"));
+                                        data.setDescription("SHOP " + page);
+                                        data.setMadeOn(LocalDate.of(2024, 3, 12));
+                                        SaltEdgeDTOs.Meta meta = new SaltEdgeDTOs.Meta();
+                                        meta.setNextId(page < 4 ? String.valueOf(page + 1) : null);
+                                        return new ResponseEntity<>(new SaltEdgeDTOs.SaltEdgeTransactionResponse(
+                                                        List.of(data), meta), HttpStatus.OK);
+                                });
+                when(externalIdIndex.findExisting(any(), anyCollection())).thenReturn(java.util.Set.of());
+                when(transactionBulkRepository.insertIgnoringDuplicates(anyList())).thenAnswer(i -> {
+                        Thread.sleep(100);
+                        return i.getArgument(0);
+                });
+
+                long start = System.currentTimeMillis();
+                List<Transaction> transactions = saltEdgeService.fetchTransactions("conn123", new User());
+                long elapsed = System.currentTimeMillis() - start;
+
+                assertEquals(5, transactions.size());
+                assertEquals(List.of("tx0", "tx1", "tx2", "tx3", "tx4"),
+                                transactions.stream().map(Transaction::getExternalId).toList());
+                // Serial would be ~1000 ms; overlapped it is ~600 ms
+                org.junit.jupiter.api.Assertions.assertTrue(elapsed < 850, "fetch took " + elapsed + " ms");
+        }
+
+        @Test
+        void fetchTransactions_DownloadFailureSurfacesToCaller() {
+                when(restTemplate.exchange(
+                                any(String.class),
+                                eq(HttpMethod.GET),
+                                any(HttpEntity.class),
+                                eq(SaltEdgeDTOs.SaltEdgeTransactionResponse.class)))
+                                .thenThrow(new RuntimeException("bank unavailable"));
+
+                RuntimeException e = org.junit.jupiter.api.Assertions.assertThrows(RuntimeException.class,
+                                () -> saltEdgeService.fetchTransactions("conn123", new User()));
+                assertEquals("bank unavailable", e.getCause().getMessage());
+        }
+
+        @Test
+        void handleCallback_EnqueuesSyncInsteadOfFetching() {
+                User user = new User();
+                user.setSaltEdgeCustomerId("cust123");
+                when(userRepository.findBySaltEdgeCustomerId("cust123")).thenReturn(java.util.Optional.of(user));
+
+                saltEdgeService.handleCallback(java.util.Map.of("data", java.util.Map.of(
+                                "stage", "finish", "connection_id", "conn1", "customer_id", "cust123")));
+
+                assertEquals("conn1", user.getSaltEdgeConnectionId());
+                verify(syncJobQueue).enqueue("conn1", "cust123");
+                verify(restTemplate, times(0)).exchange(any(String.class), eq(HttpMethod.GET), any(HttpEntity.class),
+                                eq(SaltEdgeDTOs.SaltEdgeTransactionResponse.class));
+        }
+
+        @Test
+        void handleCallback_FinishWithoutConnectionIdIsIgnored() {
+                saltEdgeService.handleCallback(java.util.Map.of("data", java.util.Map.of(
+                                "stage", "finish", "customer_id", "cust123")));
+
+                verify(syncJobQueue, times(0)).enqueue(any(), any());
+                verify(userRepository, times(0)).save(any(User.class));
+        }
+
+        private static SaltEdgeDTOs.SaltEdgeTransactionData transaction(String id) {
+                SaltEdgeDTOs.SaltEdgeTransactionData data = new SaltEdgeDTOs.SaltEdgeTransactionData();
+                data.setId(id);
+                data.setAmount(new BigDecimal("-5.00"));
+                data.setDescription("SHOP " + id);
+                data.setMadeOn(LocalDate.of(2024, 3, 12));
+                return data;
+        }
+
+        @Test
+        void fetchTransactions_FirstSyncWalksHistoryAndStoresCursor() {
+                java.util.List<String> urls = new java.util.concurrent.CopyOnWriteArrayList<>();
+                when(restTemplate.exchange(any(String.class), eq(HttpMethod.GET), any(HttpEntity.class),
+                                eq(SaltEdgeDTOs.SaltEdgeTransactionResponse.class)))
+                                .thenAnswer(inv -> {
+                                        urls.add(inv.getArgument(0));
+                                        return new ResponseEntity<>(new SaltEdgeDTOs.SaltEdgeTransactionResponse(
+                                                        List.of(transaction("99"), transaction("100")), null), HttpStatus.OK);
+                                });
+                when(externalIdIndex.findExisting(any(), anyCollection())).thenReturn(java.util.Set.of());
+                when(transactionBulkRepository.insertIgnoringDuplicates(anyList())).thenAnswer(i -> i.getArgument(0));
+
+                saltEdgeService.fetchTransactions("conn123", new User());
+
+                assertEquals(List.of("https://www.saltedge.com/api/v6/transactions?connection_id=conn123"), urls);
+                org.mockito.ArgumentCaptor<com.fintrack.backend.entity.SyncCursor> cursor =
+                                org.mockito.ArgumentCaptor.forClass(com.fintrack.backend.entity.SyncCursor.class);
+                verify(syncCursorRepository).save(cursor.capture());
+                assertEquals("conn123", cursor.getValue().getConnectionId());
+                assertEquals("100", cursor.getValue().getLastTransactionId());
+        }
+
+        @Test
+        void fetchTransactions_ResumesFromCursor() {
+                java.util.List<String> urls = new java.util.concurrent.CopyOnWriteArrayList<>();
+                when(syncCursorRepository.findByConnectionId("conn123")).thenReturn(java.util.Optional.of(
+                                com.fintrack.backend.entity.SyncCursor.builder()
+                                                .connectionId("conn123").lastTransactionId("100").build()));
+                when(syncCursorRepository.advance(eq("conn123"), any(), any(), any())).thenReturn(1);
+                when(restTemplate.exchange(any(String.class), eq(HttpMethod.GET), any(HttpEntity.class),
+                                eq(SaltEdgeDTOs.SaltEdgeTransactionResponse.class)))
+                                .thenAnswer(inv -> {
+                                        urls.add(inv.getArgument(0));
+                                        return new ResponseEntity<>(new SaltEdgeDTOs.SaltEdgeTransactionResponse(
+                                                        List.of(transaction("100"), transaction("101")), null), HttpStatus.OK);
+                                });
+                // The boundary transaction was stored by the previous sync
+                when(externalIdIndex.findExisting(any(), anyCollection())).thenReturn(java.util.Set.of("100"));
+                when(transactionBulkRepository.insertIgnoringDuplicates(anyList())).thenAnswer(i -> i.getArgument(0));
+
+                List<Transaction> transactions = saltEdgeService.fetchTransactions("conn123", new User());
+
+                assertEquals(List.of("https://www.saltedge.com/api/v6/transactions?connection_id=conn123&from_id=100"), urls);
+                assertEquals(List.of("101"), transactions.stream().map(Transaction::getExternalId).toList());
+                verify(syncCursorRepository).advance(eq("conn123"), eq("101"), any(), any());
+                verify(syncCursorRepository, times(0)).save(any());
+        }
+
+        @Test
+        void fetchTransactions_FailedPageDoesNotAdvanceCursor() {
+                when(restTemplate.exchange(any(String.class), eq(HttpMethod.GET), any(HttpEntity.class),
+                                eq(SaltEdgeDTOs.SaltEdgeTransactionResponse.class)))
+                                .thenReturn(new ResponseEntity<>(new SaltEdgeDTOs.SaltEdgeTransactionResponse(
+                                                List.of(transaction("7")), null), HttpStatus.OK));
+                when(externalIdIndex.findExisting(any(), anyCollection())).thenReturn(java.util.Set.of());
+                when(transactionBulkRepository.insertIgnoringDuplicates(anyList()))
+                                .thenThrow(new RuntimeException("database unavailable"));
+
+                org.junit.jupiter.api.Assertions.assertThrows(RuntimeException.class,
+                                () -> saltEdgeService.fetchTransactions("conn123", new User()));
+
+                verify(syncCursorRepository, times(0)).advance(any(), any(), any(), any());
+                verify(syncCursorRepository, times(0)).save(any());
+        }
+
+        @Test
+        void compareIds_OrdersNumericIdsByValue() {
+                org.junit.jupiter.api.Assertions.assertTrue(SaltEdgeService.compareIds("100", "99") > 0);
+                org.junit.jupiter.api.Assertions.assertTrue(SaltEdgeService.compareIds("0099", "100") < 0);
+                assertEquals(0, SaltEdgeService.compareIds("42", "42"));
+        }
+
+        @Test
+        void fetchTransactions_StoresLargePageInBatches() throws Exception {
+                java.lang.reflect.Field size = SaltEdgeService.class.getDeclaredField("batchSize");
+                size.setAccessible(true);
+                size.set(saltEdgeService, 2);
+                when(restTemplate.exchange(any(String.class), eq(HttpMethod.GET), any(HttpEntity.class),
+                                eq(SaltEdgeDTOs.SaltEdgeTransactionResponse.class)))
+                                .thenReturn(new ResponseEntity<>(new SaltEdgeDTOs.SaltEdgeTransactionResponse(
+                                                List.of(transaction("1"), transaction("2"), transaction("3"),
+                                                                transaction("4"), transaction("5")), null), HttpStatus.OK));
+                when(externalIdIndex.findExisting(any(), anyCollection())).thenReturn(java.util.Set.of());
+                when(transactionBulkRepository.insertIgnoringDuplicates(anyList())).thenAnswer(i -> i.getArgument(0));
+
+                List<Transaction> transactions = saltEdgeService.fetchTransactions("conn123", new User());
+
+                assertEquals(5, transactions.size());
+                verify(transactionBulkRepository, times(3)).insertIgnoringDuplicates(anyList());
+                verify(categorizationService, times(3)).categorizeAll(any(), anyCollection());
+        }
+
+        @Test
+        void fetchTransactions_RetriesTransientPageFailure() throws Exception {
+                java.lang.reflect.Field base = SaltEdgeService.class.getDeclaredField("retryBaseMillis");
+                base.setAccessible(true);
+                base.set(saltEdgeService, 1L);
+                when(syncRunService.start(eq("conn123"), any(), any())).thenReturn(7L);
+                when(restTemplate.exchange(any(String.class), eq(HttpMethod.GET), any(HttpEntity.class),
+                                eq(SaltEdgeDTOs.SaltEdgeTransactionResponse.class)))
+                                .thenThrow(new org.springframework.web.client.HttpServerErrorException(
+                                                HttpStatus.SERVICE_UNAVAILABLE))
+                                .thenReturn(new ResponseEntity<>(new SaltEdgeDTOs.SaltEdgeTransactionResponse(
+                                                List.of(transaction("1"), transaction("2")), null), HttpStatus.OK));
+                when(externalIdIndex.findExisting(any(), anyCollection())).thenReturn(java.util.Set.of());
+                when(transactionBulkRepository.insertIgnoringDuplicates(anyList())).thenAnswer(i -> i.getArgument(0));
+
+                List<Transaction> transactions = saltEdgeService.fetchTransactions("conn123", new User());
+
+                assertEquals(2, transactions.size());
+                verify(syncRunService).recordRetry(7L);
+                verify(syncRunService).checkpoint(7L, "2", 2);
+                verify(syncRunService).complete(7L);
+        }
+
+        @Test
+        void fetchTransactions_ClientErrorIsNotRetried() {
+                when(syncRunService.start(eq("conn123"), any(), any())).thenReturn(7L);
+                when(restTemplate.exchange(any(String.class), eq(HttpMethod.GET), any(HttpEntity.class),
+                                eq(SaltEdgeDTOs.SaltEdgeTransactionResponse.class)))
+                                .thenThrow(new org.springframework.web.client.HttpClientErrorException(
+                                                HttpStatus.NOT_FOUND));
+
+                org.junit.jupiter.api.Assertions.assertThrows(RuntimeException.class,
+                                () -> saltEdgeService.fetchTransactions("conn123", new User()));
+
+                verify(restTemplate, times(1)).exchange(any(String.class), eq(HttpMethod.GET), any(HttpEntity.class),
+                                eq(SaltEdgeDTOs.SaltEdgeTransactionResponse.class));
+                verify(syncRunService, times(0)).recordRetry(any());
+                verify(syncRunService).fail(eq(7L), any());
+                verify(syncRunService, times(0)).complete(any());
         }
 }
@@ -0,0 +1,180 @@
+package com.fintrack.backend.service;
+
+import com.fintrack.backend.entity.Transaction;
+import com.fintrack.backend.entity.User;
+import com.fintrack.backend.repository.SyncCursorRepository;
+import com.fintrack.backend.repository.TransactionBulkRepository;
+import com.fintrack.backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the real sync path (HTTP, streaming decode, batching, dedup check, categorization
+ * call, insert call) against {@link FakeSaltEdgeServer}, with the database and AI mocked
+ * out, and reports transactions synced per second and page latency percentiles.
+ */
+class SaltEdgeSyncBenchmarkTest {
+
+    private static final int CONNECTIONS = 6;
+    private static final int TRANSACTIONS_PER_CONNECTION = 5_000;
+    private static final int PAGE_SIZE = 1_000;
+    private static final long LATENCY_MILLIS = 20;
+
+    @Spy
+    private RestTemplate restTemplate = new RestTemplate();
+
+    @Mock
+    private TransactionBulkRepository transactionBulkRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TransactionEventPublisher transactionEventPublisher;
+
+    @Mock
+    private CategorizationService categorizationService;
+
+    @Mock
+    private SyncJobQueue syncJobQueue;
+
+    @Mock
+    private SyncCursorRepository syncCursorRepository;
+
+    @Mock
+    private SaltEdgeRateLimiter rateLimiter;
+
+    @Mock
+    private ExternalIdIndex externalIdIndex;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private SyncRunService syncRunService;
+
+    @InjectMocks
+    private SaltEdgeService saltEdgeService;
+
+    private FakeSaltEdgeServer server;
+    private final AtomicInteger stored = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionBulkRepository.insertIgnoringDuplicates(anyList())).thenAnswer(inv -> {
+            List<Transaction> page = inv.getArgument(0);
+            stored.addAndGet(page.size());
+            return page;
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (server != null) {
+            server.close();
+        }
+        saltEdgeService.shutdown();
+    }
+
+    private void pointAt(FakeSaltEdgeServer fake) throws ReflectiveOperationException {
+        for (String[] field : new String[][] { { "baseUrl", fake.baseUrl() }, { "appId", "bench-app" },
+                { "secret", "bench-secret" } }) {
+            java.lang.reflect.Field f = SaltEdgeService.class.getDeclaredField(field[0]);
+            f.setAccessible(true);
+            f.set(saltEdgeService, field[1]);
+        }
+    }
+
+    private void retryQuickly(int retries) throws ReflectiveOperationException {
+        java.lang.reflect.Field count = SaltEdgeService.class.getDeclaredField("pageRetries");
+        count.setAccessible(true);
+        count.set(saltEdgeService, retries);
+        java.lang.reflect.Field base = SaltEdgeService.class.getDeclaredField("retryBaseMillis");
+        base.setAccessible(true);
+        base.set(saltEdgeService, 1L);
+    }
+
+    private static User customer() {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("bench@example.com");
+        user.setSaltEdgeCustomerId("cust-1");
+        user.setSaltEdgeConnectionId("1");
+        return user;
+    }
+
+    @Test
+    void syncThroughputAgainstStandInServer() throws Exception {
+        server = new FakeSaltEdgeServer(CONNECTIONS, TRANSACTIONS_PER_CONNECTION, PAGE_SIZE, LATENCY_MILLIS, 0);
+        pointAt(server);
+
+        // Warm up the HTTP client, Jackson and the JIT on one connection
+        saltEdgeService.fetchTransactions("1", customer());
+        stored.set(0);
+        int warmupPages = server.pageNanos().size();
+
+        long start = System.nanoTime();
+        saltEdgeService.importDataForCustomer(customer());
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        List<Long> pages = server.pageNanos().subList(warmupPages, server.pageNanos().size()).stream()
+                .sorted().toList();
+        double p50 = pages.get(pages.size() / 2) / 1e6;
+        double p99 = pages.get(Math.min(pages.size() - 1, (int) Math.ceil(pages.size() * 0.99) - 1)) / 1e6;
+
+        System.out.printf(Locale.ROOT, "[sync benchmark] %d connections x %d transactions, %d per page, %d ms latency%n",
+                CONNECTIONS, TRANSACTIONS_PER_CONNECTION, PAGE_SIZE, LATENCY_MILLIS);
+        System.out.printf(Locale.ROOT, "  synced %d transactions in %.2f s: %.0f transactions/s%n",
+                stored.get(), seconds, stored.get() / seconds);
+        System.out.printf(Locale.ROOT, "  %d pages, latency p50 %.1f ms, p99 %.1f ms%n", pages.size(), p50, p99);
+
+        assertEquals(server.totalTransactions(), stored.get());
+        assertEquals(CONNECTIONS * (TRANSACTIONS_PER_CONNECTION / PAGE_SIZE), pages.size());
+        assertTrue(p99 >= LATENCY_MILLIS, "p99 " + p99);
+    }
+
+    @Test
+    void serverErrorsFailTheSync() throws Exception {
+        server = new FakeSaltEdgeServer(1, 100, 10, 0, 1.0);
+        pointAt(server);
+        retryQuickly(3);
+
+        assertThrows(RuntimeException.class, () -> saltEdgeService.fetchTransactions("1", customer()));
+        assertEquals(0, stored.get());
+        // The first attempt plus three retries
+        assertEquals(4, server.errors());
+    }
+
+    @Test
+    void intermittentServerErrorsAreRetried() throws Exception {
+        server = new FakeSaltEdgeServer(1, 100, 10, 0, 0.3);
+        pointAt(server);
+        retryQuickly(20);
+
+        saltEdgeService.fetchTransactions("1", customer());
+
+        assertEquals(100, stored.get());
+        verify(syncRunService, times(server.errors())).recordRetry(any());
+    }
+}
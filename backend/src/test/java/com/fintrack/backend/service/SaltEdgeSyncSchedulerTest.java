@@ -0,0 +1,137 @@
+package com.fintrack.backend.service;
+
+import com.fintrack.backend.repository.SyncJobRepository;
+import com.fintrack.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SaltEdgeSyncSchedulerTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private SyncJobRepository syncJobRepository;
+
+    @Mock
+    private SyncJobQueue syncJobQueue;
+
+    @InjectMocks
+    private SaltEdgeSyncScheduler scheduler;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private static UserRepository.SyncTarget target(long id, LocalDateTime lastLoginAt) {
+        return new UserRepository.SyncTarget() {
+            public Long getId() {
+                return id;
+            }
+
+            public String getCustomerId() {
+                return "cust" + id;
+            }
+
+            public String getConnectionId() {
+                return "conn" + id;
+            }
+
+            public LocalDateTime getLastLoginAt() {
+                return lastLoginAt;
+            }
+        };
+    }
+
+    private static SyncJobRepository.LastQueued queued(String connectionId, LocalDateTime at) {
+        return new SyncJobRepository.LastQueued() {
+            public String getConnectionId() {
+                return connectionId;
+            }
+
+            public LocalDateTime getLastQueuedAt() {
+                return at;
+            }
+        };
+    }
+
+    @Test
+    void sweep_skipsConnectionsQueuedWithinTheirInterval() {
+        when(userRepository.findSyncTargets()).thenReturn(List.of(
+                target(1, now.minusHours(1)),     // active, queued 30 min ago: not due
+                target(2, now.minusHours(1)),     // active, queued 2 h ago: due
+                target(3, now.minusDays(30)),     // idle, queued 2 h ago: not due
+                target(4, null)));                // never logged in, never queued: due
+        when(syncJobRepository.findLastQueuedSince(any())).thenReturn(List.of(
+                queued("conn1", now.minusMinutes(30)),
+                queued("conn2", now.minusHours(2)),
+                queued("conn3", now.minusHours(2))));
+
+        assertEquals(2, scheduler.sweep());
+
+        verify(syncJobQueue).enqueue(eq("conn2"), eq("cust2"), any());
+        verify(syncJobQueue).enqueue(eq("conn4"), eq("cust4"), any());
+        verify(syncJobQueue, never()).enqueue(eq("conn1"), any(), any());
+        verify(syncJobQueue, never()).enqueue(eq("conn3"), any(), any());
+    }
+
+    @Test
+    void sweep_activeUsersStartWithinFirstJitterWindowIdleWithinSecond() {
+        when(userRepository.findSyncTargets()).thenReturn(List.of(
+                target(1, now.minusDays(30)),
+                target(2, now.minusHours(1))));
+
+        scheduler.sweep();
+
+        ArgumentCaptor<LocalDateTime> idle = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> active = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(syncJobQueue).enqueue(eq("conn1"), any(), idle.capture());
+        verify(syncJobQueue).enqueue(eq("conn2"), any(), active.capture());
+        assertTrue(!active.getValue().isAfter(now.plusSeconds(301)), "active " + active.getValue());
+        assertTrue(!idle.getValue().isBefore(now.plusSeconds(299)), "idle " + idle.getValue());
+        assertTrue(active.getValue().isBefore(idle.getValue()));
+    }
+
+    @Test
+    void sweep_capsPerSweepAndPrefersLongestWaiting() {
+        java.lang.reflect.Field cap;
+        try {
+            cap = SaltEdgeSyncScheduler.class.getDeclaredField("maxPerSweep");
+            cap.setAccessible(true);
+            cap.set(scheduler, 2);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+        LocalDateTime idle = now.minusDays(30);
+        when(userRepository.findSyncTargets()).thenReturn(List.of(
+                target(1, idle), target(2, idle), target(3, idle)));
+        when(syncJobRepository.findLastQueuedSince(any())).thenReturn(List.of(
+                queued("conn1", now.minusHours(7)),
+                queued("conn2", now.minusHours(9))));
+
+        assertEquals(2, scheduler.sweep());
+
+        // conn3 was never queued, conn2 waited longer than conn1
+        verify(syncJobQueue).enqueue(eq("conn3"), any(), any());
+        verify(syncJobQueue).enqueue(eq("conn2"), any(), any());
+        verify(syncJobQueue, never()).enqueue(eq("conn1"), any(), any());
+    }
+}
@@ -0,0 +1,143 @@
+package com.fintrack.backend.service;
+
+import com.fintrack.backend.entity.SyncJob;
+import com.fintrack.backend.repository.SyncJobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SyncJobQueueTest {
+
+    @Mock
+    private SyncJobRepository syncJobRepository;
+
+    @InjectMocks
+    private SyncJobQueue syncJobQueue;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(syncJobRepository.save(any(SyncJob.class))).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    private static SyncJob running(int attempts) {
+        return SyncJob.builder().id(3L).connectionId("conn1").customerId("cust1")
+                .status(SyncJob.Status.RUNNING).attempts(attempts).lockedAt(LocalDateTime.now()).build();
+    }
+
+    @Test
+    void enqueue_secondCallbackForSameConnectionReturnsWaitingJob() {
+        SyncJob waiting = SyncJob.builder().id(1L).connectionId("conn1").dedupKey("conn1").build();
+        when(syncJobRepository.saveAndFlush(any(SyncJob.class))).thenThrow(new DataIntegrityViolationException("dup"));
+        when(syncJobRepository.findByDedupKey("conn1")).thenReturn(Optional.of(waiting));
+
+        assertSame(waiting, syncJobQueue.enqueue("conn1", "cust1"));
+    }
+
+    @Test
+    void claimNext_marksRunningAndReleasesDedupKey() {
+        SyncJob job = SyncJob.builder().id(1L).connectionId("conn1").dedupKey("conn1").build();
+        when(syncJobRepository.lockNextDue(any(LocalDateTime.class))).thenReturn(Optional.of(job));
+
+        SyncJob claimed = syncJobQueue.claimNext().orElseThrow();
+
+        assertEquals(SyncJob.Status.RUNNING, claimed.getStatus());
+        assertNull(claimed.getDedupKey());
+        assertEquals(1, claimed.getAttempts());
+    }
+
+    @Test
+    void enqueue_repeatedConstraintFailureSurfacesInsteadOfLooping() {
+        DataIntegrityViolationException failure = new DataIntegrityViolationException("not null");
+        when(syncJobRepository.saveAndFlush(any(SyncJob.class)))
+                .thenThrow(failure, new DataIntegrityViolationException("not null again"));
+        when(syncJobRepository.findByDedupKey("conn1")).thenReturn(Optional.empty());
+
+        assertSame(failure, assertThrows(DataIntegrityViolationException.class,
+                () -> syncJobQueue.enqueue("conn1", "cust1")));
+        verify(syncJobRepository, times(2)).saveAndFlush(any(SyncJob.class));
+    }
+
+    @Test
+    void enqueue_rejectsBlankConnectionId() {
+        assertThrows(IllegalArgumentException.class, () -> syncJobQueue.enqueue(" ", "cust1"));
+        verify(syncJobRepository, never()).saveAndFlush(any(SyncJob.class));
+    }
+
+    @Test
+    void complete_isKeyedOnTheClaim() {
+        SyncJob job = running(1);
+
+        syncJobQueue.complete(job);
+
+        verify(syncJobRepository).complete(eq(3L), eq(job.getLockedAt()), any(LocalDateTime.class));
+        verify(syncJobRepository, never()).save(any(SyncJob.class));
+    }
+
+    @Test
+    void claimNext_storesTheClaimAtMillisecondPrecision() {
+        SyncJob job = SyncJob.builder().id(1L).connectionId("conn1").build();
+        when(syncJobRepository.lockNextDue(any(LocalDateTime.class))).thenReturn(Optional.of(job));
+
+        SyncJob claimed = syncJobQueue.claimNext().orElseThrow();
+
+        assertEquals(0, claimed.getLockedAt().getNano() % 1_000_000);
+    }
+
+    @Test
+    void fail_retriesWithExponentialBackoff() {
+        SyncJob job = running(3);
+        when(syncJobRepository.retry(eq(3L), eq(job.getLockedAt()), eq("timeout"), any())).thenReturn(1);
+
+        syncJobQueue.fail(job, new RuntimeException("timeout"));
+
+        ArgumentCaptor<LocalDateTime> runAfter = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(syncJobRepository).retry(eq(3L), eq(job.getLockedAt()), eq("timeout"), runAfter.capture());
+        // 30s * 2^2
+        long delay = java.time.Duration.between(LocalDateTime.now(), runAfter.getValue()).getSeconds();
+        assertTrue(delay >= 115 && delay <= 120, "delay " + delay);
+    }
+
+    @Test
+    void fail_givesUpAfterMaxAttempts() {
+        SyncJob job = running(5);
+
+        syncJobQueue.fail(job, new RuntimeException("bank down"));
+
+        verify(syncJobRepository).finish(eq(3L), eq(job.getLockedAt()), eq(SyncJob.Status.FAILED), eq("bank down"),
+                any());
+        verify(syncJobRepository, never()).retry(any(), any(), any(), any());
+    }
+
+    @Test
+    void fail_retryDroppedWhenNewerJobIsWaiting() {
+        SyncJob job = running(1);
+        when(syncJobRepository.retry(any(), any(), any(), any())).thenThrow(new DataIntegrityViolationException("dup"));
+
+        syncJobQueue.fail(job, new RuntimeException("timeout"));
+
+        ArgumentCaptor<String> error = ArgumentCaptor.forClass(String.class);
+        verify(syncJobRepository).finish(eq(3L), eq(job.getLockedAt()), eq(SyncJob.Status.DONE), error.capture(),
+                any());
+        assertTrue(error.getValue().startsWith("Superseded"));
+    }
+}
@@ -0,0 +1,91 @@
+package com.fintrack.backend.service;
+
+import com.fintrack.backend.entity.SyncJob;
+import com.fintrack.backend.entity.User;
+import com.fintrack.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SyncJobWorkerTest {
+
+    @Mock
+    private SyncJobQueue syncJobQueue;
+
+    @Mock
+    private SaltEdgeService saltEdgeService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private SyncJobWorker syncJobWorker;
+
+    private final User user = new User();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        user.setSaltEdgeCustomerId("cust1");
+        when(userRepository.findBySaltEdgeCustomerId("cust1")).thenReturn(Optional.of(user));
+    }
+
+    private static SyncJob job(long id) {
+        return SyncJob.builder().id(id).connectionId("conn" + id).customerId("cust1").attempts(1).build();
+    }
+
+    @Test
+    void process_success_completesJob() {
+        SyncJob job = job(1);
+
+        syncJobWorker.process(job);
+
+        verify(saltEdgeService).fetchTransactions("conn1", user);
+        verify(syncJobQueue).complete(job);
+    }
+
+    @Test
+    void process_failure_schedulesRetry() {
+        SyncJob job = job(1);
+        RuntimeException error = new RuntimeException("Failed to fetch transactions");
+        when(saltEdgeService.fetchTransactions("conn1", user)).thenThrow(error);
+
+        syncJobWorker.process(job);
+
+        verify(syncJobQueue).fail(job, error);
+        verify(syncJobQueue, never()).complete(any());
+    }
+
+    @Test
+    void poll_claimsNoMoreJobsThanIdleWorkers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(syncJobQueue.claimNext()).thenReturn(Optional.of(job(1)), Optional.of(job(2)), Optional.of(job(3)),
+                Optional.of(job(4)), Optional.of(job(5)), Optional.empty());
+        when(saltEdgeService.fetchTransactions(any(), eq(user))).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return java.util.List.of();
+        });
+
+        syncJobWorker.poll();
+        verify(syncJobQueue, times(4)).claimNext();
+
+        release.countDown();
+        verify(syncJobQueue, timeout(2000).times(4)).complete(any());
+        syncJobWorker.poll();
+        verify(syncJobQueue, timeout(2000).times(5)).complete(any());
+    }
+}
@@ -0,0 +1,86 @@
+package com.fintrack.backend.service;
+
+import com.fintrack.backend.entity.SyncRun;
+import com.fintrack.backend.entity.User;
+import com.fintrack.backend.repository.SyncRunRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SyncRunServiceTest {
+
+    @Mock
+    private SyncRunRepository syncRunRepository;
+
+    @Mock
+    private SyncJobQueue syncJobQueue;
+
+    @InjectMocks
+    private SyncRunService syncRunService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(syncRunRepository.save(any(SyncRun.class))).thenAnswer(inv -> {
+            SyncRun run = inv.getArgument(0);
+            run.setId(11L);
+            return run;
+        });
+    }
+
+    private static SyncRun stale(Long id, String connectionId) {
+        return SyncRun.builder().id(id).connectionId(connectionId).customerId("cust1").cursor("42")
+                .heartbeatAt(LocalDateTime.now().minusHours(2)).build();
+    }
+
+    @Test
+    void start_recordsRunningRunFromCursor() {
+        User user = new User();
+        user.setId(5L);
+        user.setSaltEdgeCustomerId("cust1");
+
+        assertEquals(11L, syncRunService.start("conn1", user, "100"));
+
+        ArgumentCaptor<SyncRun> run = ArgumentCaptor.forClass(SyncRun.class);
+        verify(syncRunRepository).save(run.capture());
+        assertEquals(SyncRun.Status.RUNNING, run.getValue().getStatus());
+        assertEquals("100", run.getValue().getStartedFromId());
+        assertEquals(5L, run.getValue().getUserId());
+    }
+
+    @Test
+    void fail_truncatesLongErrors() {
+        syncRunService.fail(3L, new RuntimeException("x".repeat(5000)));
+
+        ArgumentCaptor<String> error = ArgumentCaptor.forClass(String.class);
+        verify(syncRunRepository).finish(eq(3L), eq(SyncRun.Status.FAILED), error.capture(), any());
+        assertEquals(1000, error.getValue().length());
+    }
+
+    @Test
+    void resumeInterrupted_requeuesOnlyRunsItMarked() {
+        when(syncRunRepository.findByStatusAndHeartbeatAtBefore(eq(SyncRun.Status.RUNNING), any()))
+                .thenReturn(List.of(stale(1L, "conn1"), stale(2L, "conn2")));
+        when(syncRunRepository.finish(eq(1L), eq(SyncRun.Status.INTERRUPTED), any(), any())).thenReturn(1);
+        // Run 2 finished on its own node in the meantime
+        when(syncRunRepository.finish(eq(2L), eq(SyncRun.Status.INTERRUPTED), any(), any())).thenReturn(0);
+
+        assertEquals(1, syncRunService.resumeInterrupted());
+
+        verify(syncJobQueue).enqueue("conn1", "cust1");
+        verify(syncJobQueue, never()).enqueue(eq("conn2"), any());
+    }
+}
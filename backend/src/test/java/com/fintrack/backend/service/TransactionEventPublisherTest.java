@@ -0,0 +1,92 @@
+package com.fintrack.backend.service;
+
+import com.fintrack.backend.dto.TransactionDeltaEvent;
+import com.fintrack.backend.entity.Transaction;
+import com.fintrack.backend.entity.User;
+import com.fintrack.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TransactionEventPublisherTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private TransactionEventPublisher publisher;
+
+    private final User user = new User();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        user.setId(7L);
+        user.setEmail("alice@example.com");
+        when(userRepository.findBalanceById(7L)).thenReturn(new BigDecimal("958.00"));
+    }
+
+    private static Transaction tx(long id, String category, String amount) {
+        return Transaction.builder()
+                .id(id)
+                .amount(new BigDecimal(amount))
+                .category(category)
+                .description("SHOP " + id)
+                .date(LocalDateTime.of(2024, 3, 12, 0, 0))
+                .type(Transaction.TransactionType.EXPENSE)
+                .currency("KZT")
+                .build();
+    }
+
+    @Test
+    void sendsDeltaToOwnerOnly() {
+        publisher.publishAdded(user, "conn1", List.of(tx(1, "Food", "30.00"), tx(2, "Transport", "12.00"),
+                tx(3, "Food", "5.00")));
+
+        ArgumentCaptor<TransactionDeltaEvent> event = ArgumentCaptor.forClass(TransactionDeltaEvent.class);
+        verify(messagingTemplate).convertAndSendToUser(eq("alice@example.com"), eq("/queue/transactions"),
+                event.capture());
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+        assertEquals(TransactionDeltaEvent.TRANSACTIONS_ADDED, event.getValue().getType());
+        assertEquals("conn1", event.getValue().getConnectionId());
+        assertEquals(List.of(1L, 2L, 3L), event.getValue().getTransactions().stream().map(t -> t.getId()).toList());
+        assertEquals(7L, event.getValue().getTransactions().get(0).getUserId());
+        assertEquals(new BigDecimal("958.00"), event.getValue().getBalance());
+        assertEquals(List.of("Food", "Transport"), event.getValue().getCategories());
+    }
+
+    @Test
+    void nothingAddedSendsNothing() {
+        publisher.publishAdded(user, "conn1", List.of());
+
+        verify(messagingTemplate, never()).convertAndSendToUser(anyString(), anyString(), any());
+    }
+
+    @Test
+    void pushFailureDoesNotFailTheSync() {
+        doThrow(new org.springframework.messaging.MessageDeliveryException("broker down"))
+                .when(messagingTemplate).convertAndSendToUser(anyString(), anyString(), any());
+
+        publisher.publishAdded(user, "conn1", List.of(tx(1, "Food", "30.00")));
+    }
+}
@@ -33,6 +33,8 @@ class TransactionServiceTest {
     private UserRepository userRepository;
     @Mock
     private NotificationRepository notificationRepository;
+    @Mock
+    private UserCategoryRuleService userCategoryRuleService;
 
     @InjectMocks
     private TransactionService transactionService;
@@ -116,6 +118,32 @@ class TransactionServiceTest {
         verify(transactionRepository).delete(tx);
     }
 
+    @Test
+    void updateTransaction_categoryChange_recordsUserRule() {
+        Transaction existing = Transaction.builder()
+                .id(10L)
+                .amount(new BigDecimal("12"))
+                .type(Transaction.TransactionType.EXPENSE)
+                .category("Food")
+                .description("STARBUCKS 0412 ALMATY")
+                .user(testUser)
+                .build();
+        Transaction update = Transaction.builder()
+                .amount(new BigDecimal("12"))
+                .type(Transaction.TransactionType.EXPENSE)
+                .category("Work")
+                .description("STARBUCKS 0412 ALMATY")
+                .build();
+
+        when(transactionRepository.findById(10L)).thenReturn(Optional.of(existing));
+        when(transactionRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+        when(transactionRepository.calculateBalanceByUserId(1L)).thenReturn(new BigDecimal("988"));
+
+        transactionService.updateTransaction(10L, update);
+
+        verify(userCategoryRuleService).recordOverride(testUser, "STARBUCKS 0412 ALMATY", "Work");
+    }
+
     @Test
     void getMonthlyStats_calculatesCorrectly() {
         Transaction income = Transaction.builder()
@@ -0,0 +1,132 @@
+package com.fintrack.backend.service;
+
+import com.fintrack.backend.entity.User;
+import com.fintrack.backend.entity.UserCategoryRule;
+import com.fintrack.backend.repository.UserCategoryRuleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserCategoryRuleServiceTest {
+
+    @Mock
+    private UserCategoryRuleRepository userCategoryRuleRepository;
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    private UserCategoryRuleService userCategoryRuleService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        userCategoryRuleService = new UserCategoryRuleService(userCategoryRuleRepository, 2, 60_000, now::get);
+        user = new User();
+        user.setId(1L);
+        when(userCategoryRuleRepository.findByUserId(1L)).thenReturn(List.of(
+                UserCategoryRule.builder().id(1L).user(user).keyword("starbucks").category("Work").build()));
+        when(userCategoryRuleRepository.findByUserId(2L)).thenReturn(List.of());
+        when(userCategoryRuleRepository.findByUserId(3L)).thenReturn(List.of());
+    }
+
+    @Test
+    void match_usesOwnRulesAndLoadsOverlayOnce() {
+        assertEquals("Work", userCategoryRuleService.match(1L, "STARBUCKS COFFEE 0412"));
+        assertNull(userCategoryRuleService.match(1L, "UBER TRIP"));
+        assertNull(userCategoryRuleService.match(2L, "STARBUCKS COFFEE"));
+
+        verify(userCategoryRuleRepository, times(1)).findByUserId(1L);
+        verify(userCategoryRuleRepository, times(1)).findByUserId(2L);
+    }
+
+    @Test
+    void overlay_boundedAndExpires() {
+        userCategoryRuleService.match(1L, "x");
+        userCategoryRuleService.match(2L, "x");
+        userCategoryRuleService.match(3L, "x");
+        assertEquals(2, userCategoryRuleService.cachedUsers());
+
+        // User 1 was least recently used and got evicted
+        userCategoryRuleService.match(1L, "x");
+        verify(userCategoryRuleRepository, times(2)).findByUserId(1L);
+
+        now.addAndGet(60_001);
+        userCategoryRuleService.match(1L, "x");
+        verify(userCategoryRuleRepository, times(3)).findByUserId(1L);
+    }
+
+    @Test
+    void recordOverride_storesNormalizedRuleAndInvalidates() {
+        userCategoryRuleService.match(1L, "x");
+        when(userCategoryRuleRepository.findByUserIdAndKeyword(1L, "magnum cash carry")).thenReturn(Optional.empty());
+
+        userCategoryRuleService.recordOverride(user, "MAGNUM CASH&CARRY 12.03.2024 ALMATY", "Groceries");
+
+        ArgumentCaptor<UserCategoryRule> saved = ArgumentCaptor.forClass(UserCategoryRule.class);
+        verify(userCategoryRuleRepository).save(saved.capture());
+        assertEquals("magnum cash carry", saved.getValue().getKeyword());
+        assertEquals("Groceries", saved.getValue().getCategory());
+        assertEquals(0, userCategoryRuleService.cachedUsers());
+    }
+
+    @Test
+    void recordOverride_ignoresNegativeCategoriesAndEmptyDescriptions() {
+        userCategoryRuleService.recordOverride(user, "MAGNUM", "Uncategorized");
+        userCategoryRuleService.recordOverride(user, "POS 4400-43** 12.03.2024", "Food");
+
+        verify(userCategoryRuleRepository, never()).findByUserIdAndKeyword(anyLong(), anyString());
+        verify(userCategoryRuleRepository, never()).save(any());
+    }
+
+    @Test
+    void recordOverride_ignoresKeywordsTooShortToIdentifyAMerchant() {
+        // Normalizes to "ab", which as a substring rule would also claim "abc market", "kebab house", ...
+        userCategoryRuleService.recordOverride(user, "AB 4400-43** 12.03.2024", "Food");
+
+        verify(userCategoryRuleRepository, never()).findByUserIdAndKeyword(anyLong(), anyString());
+        verify(userCategoryRuleRepository, never()).save(any());
+    }
+
+    @Test
+    void match_skipsShortRulesStoredBeforeTheMinimum() {
+        when(userCategoryRuleRepository.findByUserId(2L)).thenReturn(List.of(
+                UserCategoryRule.builder().id(2L).user(user).keyword("ab").category("Food").build()));
+
+        assertNull(userCategoryRuleService.match(2L, "KEBAB HOUSE"));
+    }
+
+    @Test
+    void loadUncached_compilesRulesInOneQueryWithoutFillingTheCache() {
+        User other = new User();
+        other.setId(7L);
+        when(userCategoryRuleRepository.findByUserIdIn(anyCollection())).thenReturn(List.of(
+                UserCategoryRule.builder().id(1L).user(user).keyword("starbucks").category("Work").build(),
+                UserCategoryRule.builder().id(2L).user(other).keyword("magnum").category("Groceries").build()));
+
+        Map<Long, MerchantMatcher> rules = userCategoryRuleService.loadUncached(Set.of(1L, 7L, 8L));
+
+        assertEquals("Work", rules.get(1L).match("STARBUCKS 0412"));
+        assertEquals("Groceries", rules.get(7L).match("MAGNUM CASH&CARRY"));
+        assertNull(rules.get(8L));
+        assertEquals(0, userCategoryRuleService.cachedUsers());
+        verify(userCategoryRuleRepository, never()).findByUserId(anyLong());
+    }
+}
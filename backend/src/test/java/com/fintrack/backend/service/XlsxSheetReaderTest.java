@@ -0,0 +1,76 @@
+package com.fintrack.backend.service;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class XlsxSheetReaderTest {
+
+    @TempDir
+    Path dir;
+
+    private List<String[]> read(File file, int columns, List<Integer> rowNums) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        XlsxSheetReader.read(file, columns, (rowNum, cells) -> {
+            rowNums.add(rowNum);
+            rows.add(cells.clone());
+        });
+        return rows;
+    }
+
+    @Test
+    void read_passesRawValuesAndSkipsEmptyRows() throws IOException {
+        File file = dir.resolve("t.xlsx").toFile();
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = new FileOutputStream(file)) {
+            Sheet sheet = workbook.createSheet("Transactions");
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.createDataFormat().getFormat("dd.mm.yyyy hh:mm"));
+            CellStyle moneyStyle = workbook.createCellStyle();
+            moneyStyle.setDataFormat(workbook.createDataFormat().getFormat("#,##0.00"));
+
+            Row first = sheet.createRow(0);
+            first.createCell(0).setCellValue("Salary");
+            first.createCell(1).setCellValue(LocalDateTime.of(2025, 1, 15, 10, 30));
+            first.getCell(1).setCellStyle(dateStyle);
+            first.createCell(2).setCellValue(1500000.5);
+            first.getCell(2).setCellStyle(moneyStyle);
+            sheet.createRow(1).createCell(0).setCellValue(" ");
+            Row third = sheet.createRow(2);
+            third.createCell(2).setCellValue(42);
+            third.createCell(5).setCellValue("beyond the columns read");
+            workbook.write(out);
+        }
+
+        List<Integer> rowNums = new ArrayList<>();
+        List<String[]> rows = read(file, 3, rowNums);
+
+        assertEquals(List.of(0, 2), rowNums);
+        assertArrayEquals(new String[] { "Salary", "2025-01-15T10:30", "1500000.5" }, rows.get(0));
+        assertArrayEquals(new String[] { null, null, "42" }, rows.get(1));
+    }
+
+    @Test
+    void read_rejectsFilesThatAreNotXlsx() throws IOException {
+        Path file = dir.resolve("t.xlsx");
+        Files.writeString(file, "Date,Amount\n2025-01-15,100\n");
+
+        assertThrows(IOException.class, () -> read(file.toFile(), 7, new ArrayList<>()));
+    }
+}